@@ -1,7 +1,9 @@
 package ni3po42.android.tractiondemo.models;
 
+import traction.mvc.annotations.Bindable;
 import traction.mvc.observables.Command;
 
+@Bindable
 public interface DialogModel
 {
     String getSomeText();
@@ -15,10 +15,11 @@
 
 package ni3po42.android.tractiondemo.models;
 
+import traction.mvc.annotations.Bindable;
 import traction.mvc.observables.ObservableObject;
 import traction.mvc.observables.PropertyStore;
 
-
+@Bindable
 public class EntryItem
     extends ObservableObject
 {
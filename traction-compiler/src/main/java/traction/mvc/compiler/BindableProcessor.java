@@ -0,0 +1,490 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates, for each type annotated with traction.mvc.annotations.Bindable:
+ * - for a class, ClassName$$Accessors, an IPropertyAccessorFactory with a direct accessor per property
+ * - for a scope interface, InterfaceName$$Scope, an implementation backed by an ObservableMap
+ * PropertyStore and ScopeBuilder load these by name, so no registration is needed.
+ * @author Tim Stratton
+ *
+ */
+@SupportedAnnotationTypes(BindableProcessor.BINDABLE)
+public class BindableProcessor
+    extends AbstractProcessor
+{
+    static final String BINDABLE = "traction.mvc.annotations.Bindable";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        for(TypeElement annotation : annotations)
+        {
+            for(Element element : roundEnv.getElementsAnnotatedWith(annotation))
+            {
+                TypeElement type = (TypeElement)element;
+                if (type.getModifiers().contains(Modifier.PRIVATE))
+                {
+                    error(type, "@Bindable types can't be private");
+                    continue;
+                }
+
+                try
+                {
+                    if (type.getKind() == ElementKind.INTERFACE)
+                        writeScope(type);
+                    else if (type.getKind() == ElementKind.CLASS)
+                        writeAccessors(type);
+                    else
+                        error(type, "@Bindable only applies to classes and interfaces");
+                }
+                catch (IOException ex)
+                {
+                    error(type, "could not generate bindings: " + ex.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A property as seen by PropertyStore: 'get'/'is' getter or public field, and an optional 'set' setter
+     */
+    private static class BindableProperty
+    {
+        String name;
+        TypeMirror type;
+        String getter;
+        ExecutableElement setter;
+        final List<ExecutableElement> setters = new ArrayList<ExecutableElement>();
+        String field;
+        boolean finalField;
+    }
+
+    private void writeAccessors(TypeElement type) throws IOException
+    {
+        Map<String, BindableProperty> properties = new LinkedHashMap<String, BindableProperty>();
+        List<? extends Element> members = processingEnv.getElementUtils().getAllMembers(type);
+        for(Element member : members)
+        {
+            if (!member.getModifiers().contains(Modifier.PUBLIC) || member.getModifiers().contains(Modifier.STATIC))
+                continue;
+
+            if (member.getKind() == ElementKind.METHOD)
+            {
+                ExecutableElement method = (ExecutableElement)member;
+                String methodName = method.getSimpleName().toString();
+                String name = propertyName(methodName);
+                if (name == null || isObjectMethod(method))
+                    continue;
+
+                if (methodName.startsWith("set"))
+                {
+                    if (method.getParameters().size() != 1 || method.getReturnType().getKind() != TypeKind.VOID)
+                        continue;
+                    getOrAdd(properties, name).setters.add(method);
+                }
+                else if (method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID)
+                {
+                    BindableProperty property = getOrAdd(properties, name);
+                    //a 'get' getter wins over an 'is' one, as PropertyStore looks for it first
+                    if (property.getter == null || methodName.startsWith("get"))
+                    {
+                        property.getter = methodName;
+                        property.type = method.getReturnType();
+                    }
+                }
+            }
+            else if (member.getKind() == ElementKind.FIELD)
+            {
+                VariableElement field = (VariableElement)member;
+                BindableProperty property = getOrAdd(properties, field.getSimpleName().toString());
+                property.field = property.name;
+                property.finalField = field.getModifiers().contains(Modifier.FINAL);
+                if (property.getter == null)
+                    property.type = field.asType();
+            }
+        }
+
+        for(BindableProperty property : properties.values())
+        {
+            //a setter-only property takes the type of its first setter
+            if (property.type == null && !property.setters.isEmpty())
+                property.type = property.setters.get(0).getParameters().get(0).asType();
+            if (property.type != null)
+                property.setter = findSetter(property);
+        }
+
+        String hostName = type.getQualifiedName().toString();
+        String className = generatedName(type, "$$Accessors");
+        StringBuilder source = new StringBuilder();
+        writeHeader(source, type);
+        source.append("import android.util.Property;\n\n");
+        source.append("import traction.mvc.interfaces.IPropertyAccessorFactory;\n");
+        source.append("import traction.mvc.observables.BooleanProperty;\n");
+        source.append("import traction.mvc.observables.Coercion;\n");
+        source.append("import traction.mvc.observables.FloatProperty;\n");
+        source.append("import traction.mvc.observables.IntProperty;\n\n");
+        source.append("@SuppressWarnings(\"unchecked\")\n");
+        source.append("public final class ").append(className).append("\n    implements IPropertyAccessorFactory\n{\n");
+
+        source.append("    @Override\n    public Property<?,?> createAccessor(String name)\n    {\n");
+        int index = 0;
+        for(BindableProperty property : properties.values())
+        {
+            if (property.type == null)
+                continue;
+            source.append("        if (\"").append(property.name).append("\".equals(name))\n");
+            source.append("            return new accessor").append(index++).append("();\n");
+        }
+        source.append("        return null;\n    }\n");
+
+        index = 0;
+        for(BindableProperty property : properties.values())
+        {
+            TypeMirror valueType = property.type;
+            if (valueType == null)
+                continue;
+
+            String valueClass = erasure(valueType);
+            //int, boolean and float members get a primitive property, so bindings can skip boxing them
+            String primitive = primitiveAccessorName(valueType);
+            String base = primitive == null ? "Property<Object, Object>" : primitive + "Property<Object>";
+            String getType = primitive == null ? "Object" : valueClass;
+            String getName = primitive == null ? "get" : "get" + primitive;
+            String setName = primitive == null ? "set" : "set" + primitive;
+            //written as the member takes it, converting numbers the way AccessorProperty does
+            TypeMirror memberType = property.setter != null && (property.getter != null || property.field == null)
+                    ? property.setter.getParameters().get(0).asType() : valueType;
+            String setValue = primitive == null ? "(" + boxedName(memberType) + ")" + coerced(memberType) : "value";
+
+            source.append("\n    private static final class accessor").append(index++).append("\n        extends ").append(base).append("\n    {\n");
+            source.append("        accessor").append(index - 1).append("()\n        {\n");
+            if (primitive == null)
+                source.append("            super((Class<Object>)(Class<?>)").append(valueClass).append(".class, \"").append(property.name).append("\");\n        }\n\n");
+            else
+                source.append("            super(\"").append(property.name).append("\");\n        }\n\n");
+
+            source.append("        @Override\n        public ").append(getType).append(" ").append(getName).append("(Object object)\n        {\n");
+            if (property.getter != null)
+                source.append("            return ((").append(hostName).append(")object).").append(property.getter).append("();\n");
+            else if (property.field != null)
+                source.append("            return ((").append(hostName).append(")object).").append(property.field).append(";\n");
+            else
+                source.append("            throw new UnsupportedOperationException(\"'get' or 'is' method not available for: \"+getName());\n");
+            source.append("        }\n\n");
+
+            source.append("        @Override\n        public void ").append(setName).append("(Object object, ").append(getType).append(" value)\n        {\n");
+            if (property.setter != null && (property.getter != null || property.field == null))
+                source.append("            ((").append(hostName).append(")object).").append(property.setter.getSimpleName()).append("(").append(setValue).append(");\n");
+            else if (property.getter == null && property.field != null && !property.finalField)
+                source.append("            ((").append(hostName).append(")object).").append(property.field).append(" = ").append(setValue).append(";\n");
+            else
+                source.append("            throw new UnsupportedOperationException(\"Property \" + getName() + \" is read-only\");\n");
+            source.append("        }\n\n");
+
+            boolean readOnly = property.getter != null ? property.setter == null : property.field != null && property.finalField;
+            source.append("        @Override\n        public boolean isReadOnly()\n        {\n");
+            source.append("            return ").append(readOnly).append(";\n        }\n    }\n");
+        }
+        source.append("}\n");
+
+        write(type, className, source);
+    }
+
+    private void writeScope(TypeElement type) throws IOException
+    {
+        String scopeName = type.getQualifiedName().toString();
+        String className = generatedName(type, "$$Scope");
+
+        //setters first, so getters know whether they are read only
+        List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+        Map<String, Boolean> setters = new LinkedHashMap<String, Boolean>();
+        for(Element member : processingEnv.getElementUtils().getAllMembers(type))
+        {
+            if (member.getKind() != ElementKind.METHOD || isObjectMethod((ExecutableElement)member)
+                    || member.getModifiers().contains(Modifier.STATIC))
+                continue;
+            ExecutableElement method = (ExecutableElement)member;
+            methods.add(method);
+            if (method.getReturnType().getKind() == TypeKind.VOID)
+                setters.put(method.getSimpleName().toString().substring(3), Boolean.TRUE);
+        }
+
+        StringBuilder source = new StringBuilder();
+        writeHeader(source, type);
+        source.append("import java.util.Hashtable;\nimport java.util.LinkedList;\n\n");
+        source.append("import android.util.Property;\n\n");
+        source.append("import traction.mvc.interfaces.IPOJO;\n");
+        source.append("import traction.mvc.observables.Command;\n");
+        source.append("import traction.mvc.observables.IProxyObservableObject;\n");
+        source.append("import traction.mvc.observables.ObservableCursor;\n");
+        source.append("import traction.mvc.observables.ObservableList;\n");
+        source.append("import traction.mvc.observables.ObservableMap;\n");
+        source.append("import traction.mvc.observables.ObservableObject;\n");
+        source.append("import traction.mvc.observables.ScopeBuilder;\n\n");
+        source.append("@SuppressWarnings(\"unchecked\")\n");
+        source.append("public final class ").append(className).append("\n    implements ").append(scopeName).append(", IProxyObservableObject, IPOJO\n{\n");
+        source.append("    private final ObservableMap map = new ObservableMap(new Hashtable<String, Object>(), ").append(scopeName).append(".class);\n\n");
+        source.append("    @Override\n    public ObservableObject getProxyObservableObject()\n    {\n        return map.getProxyObservableObject();\n    }\n\n");
+        source.append("    @Override\n    public Property<Object,Object> getProperty(String name)\n    {\n        return map.getProperty(name);\n    }\n");
+
+        for(ExecutableElement method : methods)
+        {
+            String methodName = method.getSimpleName().toString();
+            String name = propertyName(methodName);
+            if (name == null)
+            {
+                error(method, "scope methods must be getters or setters: " + methodName);
+                continue;
+            }
+
+            TypeMirror returnType = method.getReturnType();
+            source.append("\n    @Override\n    public ");
+            if (returnType.getKind() == TypeKind.VOID)
+            {
+                if (method.getParameters().size() != 1)
+                {
+                    error(method, "scope setters take one value: " + methodName);
+                    continue;
+                }
+                source.append("void ").append(methodName).append("(").append(erasure(method.getParameters().get(0).asType())).append(" value)\n    {\n");
+                source.append("        map.put(\"").append(name).append("\", value);\n    }\n");
+                continue;
+            }
+
+            //the scope implements the raw interface, so type variables are written as their erasure
+            source.append(erasure(returnType)).append(" ").append(methodName).append("()\n    {\n");
+            source.append("        Object value = map.get(\"").append(name).append("\");\n");
+            String defaultValue = setters.containsKey(name) ? null : defaultFor(returnType);
+            if (defaultValue != null)
+            {
+                source.append("        if (value == null)\n        {\n");
+                source.append("            value = ").append(defaultValue).append(";\n");
+                source.append("            map.put(\"").append(name).append("\", value);\n        }\n");
+            }
+            if (returnType.getKind().isPrimitive())
+            {
+                String zero = returnType.getKind() == TypeKind.BOOLEAN ? "false" : "(" + returnType + ")0";
+                source.append("        return value == null ? ").append(zero).append(" : (").append(boxedName(returnType)).append(")value;\n    }\n");
+            }
+            else
+            {
+                source.append("        return (").append(erasure(returnType)).append(")value;\n    }\n");
+            }
+        }
+        source.append("}\n");
+
+        write(type, className, source);
+    }
+
+    /**
+     * Same defaults ScopeBuilder creates for read only properties
+     */
+    private String defaultFor(TypeMirror type)
+    {
+        if (type.getKind() != TypeKind.DECLARED)
+            return null;
+        if (isAssignable(type, "java.lang.Iterable"))
+            return "new ObservableList<Object>(new LinkedList<Object>())";
+        if (isAssignable(type, "traction.mvc.interfaces.IObservableCursor"))
+            return "new ObservableCursor()";
+        if (isAssignable(type, "traction.mvc.interfaces.IObservableCommand"))
+            return "new Command()";
+        if (processingEnv.getTypeUtils().asElement(type).getKind() == ElementKind.INTERFACE)
+            return "ScopeBuilder.CreateScope(" + erasure(type) + ".class)";
+        return null;
+    }
+
+    private boolean isAssignable(TypeMirror type, String className)
+    {
+        TypeElement element = processingEnv.getElementUtils().getTypeElement(className);
+        if (element == null)
+            return false;
+        return processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type),
+                processingEnv.getTypeUtils().erasure(element.asType()));
+    }
+
+    private static BindableProperty getOrAdd(Map<String, BindableProperty> properties, String name)
+    {
+        BindableProperty property = properties.get(name);
+        if (property == null)
+        {
+            property = new BindableProperty();
+            property.name = name;
+            properties.put(name, property);
+        }
+        return property;
+    }
+
+    private static String propertyName(String methodName)
+    {
+        if ((methodName.startsWith("get") || methodName.startsWith("set")) && methodName.length() > 3)
+            return methodName.substring(3);
+        if (methodName.startsWith("is") && methodName.length() > 2)
+            return methodName.substring(2);
+        return null;
+    }
+
+    private static boolean isObjectMethod(ExecutableElement method)
+    {
+        Element owner = method.getEnclosingElement();
+        return owner instanceof TypeElement && ((TypeElement)owner).getQualifiedName().contentEquals("java.lang.Object");
+    }
+
+    private String erasure(TypeMirror type)
+    {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * @return : Int, Boolean or Float for types with a primitive property class, null otherwise
+     */
+    private static String primitiveAccessorName(TypeMirror type)
+    {
+        switch (type.getKind())
+        {
+            case INT:
+                return "Int";
+            case BOOLEAN:
+                return "Boolean";
+            case FLOAT:
+                return "Float";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return : name of the type to cast a value to: the boxed class of a primitive, the erasure of anything else
+     */
+    private String boxedName(TypeMirror type)
+    {
+        if (type.getKind().isPrimitive())
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        return erasure(type);
+    }
+
+    /**
+     * @return : expression converting 'value' to the number type a member takes, or 'value' if it isn't a number type
+     */
+    private String coerced(TypeMirror memberType)
+    {
+        String name = boxedName(memberType);
+        if (name.equals("java.lang.Integer"))
+            return "Coercion.coerce(Coercion.INT, value)";
+        if (name.equals("java.lang.Long"))
+            return "Coercion.coerce(Coercion.LONG, value)";
+        if (name.equals("java.lang.Float"))
+            return "Coercion.coerce(Coercion.FLOAT, value)";
+        if (name.equals("java.lang.Double"))
+            return "Coercion.coerce(Coercion.DOUBLE, value)";
+        if (name.equals("java.lang.Short"))
+            return "Coercion.coerce(Coercion.SHORT, value)";
+        if (name.equals("java.lang.Byte"))
+            return "Coercion.coerce(Coercion.BYTE, value)";
+        return "value";
+    }
+
+    /**
+     * Same rule as PropertyStore: the setter taking the property's type, or else the most specific one taking a
+     * supertype of it
+     */
+    private ExecutableElement findSetter(BindableProperty property)
+    {
+        Types types = processingEnv.getTypeUtils();
+        TypeMirror valueType = types.erasure(property.type);
+        ExecutableElement widening = null;
+        for(ExecutableElement setter : property.setters)
+        {
+            TypeMirror parameterType = types.erasure(setter.getParameters().get(0).asType());
+            if (types.isSameType(parameterType, valueType))
+                return setter;
+            if (!valueType.getKind().isPrimitive() && !parameterType.getKind().isPrimitive() && types.isAssignable(valueType, parameterType)
+                    && (widening == null || types.isAssignable(parameterType, types.erasure(widening.getParameters().get(0).asType()))))
+                widening = setter;
+        }
+        return widening;
+    }
+
+    /**
+     * Generated classes sit next to the type, named after its binary name, so they can be found with Class.forName
+     */
+    private String generatedName(TypeElement type, String suffix)
+    {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return binaryName.substring(binaryName.lastIndexOf('.') + 1) + suffix;
+    }
+
+    private void writeHeader(StringBuilder source, TypeElement type)
+    {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        source.append("//generated by traction.mvc.compiler.BindableProcessor, do not edit\n");
+        if (!packageElement.isUnnamed())
+            source.append("package ").append(packageElement.getQualifiedName()).append(";\n\n");
+    }
+
+    private void write(TypeElement type, String className, StringBuilder source) throws IOException
+    {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String name = packageElement.isUnnamed() ? className : packageElement.getQualifiedName() + "." + className;
+        Writer writer = processingEnv.getFiler().createSourceFile(name, type).openWriter();
+        try
+        {
+            writer.write(source.toString());
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    private void error(Element element, String message)
+    {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,10 @@
+# Accessors and scopes generated for @Bindable types are looked up at runtime by the name of the type they were
+# generated for, and created through their no argument constructors. Without these, shrinking drops or renames them
+# and traction silently falls back to reflection.
+-keepnames @traction.mvc.annotations.Bindable class *
+-keep class **$$Accessors {
+    <init>();
+}
+-keep class **$$Scope {
+    <init>();
+}
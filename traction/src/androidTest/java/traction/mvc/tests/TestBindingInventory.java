@@ -16,18 +16,36 @@
 package traction.mvc.tests;
 
 import android.test.InstrumentationTestCase;
+import android.util.Property;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import traction.mvc.annotations.Bindable;
 import traction.mvc.observables.BindingInventory;
+import traction.mvc.implementations.ChangeEvent;
 import traction.mvc.implementations.CommandArgument;
+import traction.mvc.implementations.ValueConverters;
+import traction.mvc.implementations.PropagationId;
 import traction.mvc.observables.Command;
+import traction.mvc.observables.IProxyObservableObject;
+import traction.mvc.observables.IntProperty;
 import traction.mvc.observables.ObservableObject;
 import traction.mvc.observables.PropertyStore;
+import traction.mvc.observables.ScopeBuilder;
+import traction.mvc.implementations.ui.UIProperty;
+import traction.mvc.interfaces.IIntUIElement;
+import traction.mvc.interfaces.IPropertyAccessorFactory;
+import traction.mvc.interfaces.IProxyViewBinding;
 import traction.mvc.interfaces.IUIElement;
+import traction.mvc.interfaces.IValueConverter;
+import traction.mvc.interfaces.IViewBinding;
 
 
 import static org.mockito.Mockito.*;
@@ -46,6 +64,15 @@ public class TestBindingInventory extends InstrumentationTestCase
         System.setProperty( "dexmaker.dexcache", getInstrumentation().getTargetContext().getCacheDir().getPath() );
     }
 
+    @Override
+    protected void tearDown() throws Exception {
+
+        //the property store is shared, leave it as the next test expects it
+        PropertyStore.unregisterAccessorFactory(accessedObj.class);
+        PropertyStore.unregisterAccessorFactory(intObj.class);
+        super.tearDown();
+    }
+
 	public void testCanCreateBindingInventory()
 	{
 		//arrange
@@ -226,6 +253,235 @@ public class TestBindingInventory extends InstrumentationTestCase
 		verify(uiprop3).receiveUpdate(eq(3003));
 	}
 
+    public void testReplacingSubObjectUpdatesPathAndSubPaths()
+    {
+        //arrange
+        biObj context = new biObj();
+        context.setObj(new biObj());
+        BindingInventory inv = new BindingInventory();
+        IUIElement uiprop1 = mock(IUIElement.class);
+        IUIElement uiprop2 = mock(IUIElement.class);
+
+        //act
+        inv.track(uiprop1, "Obj");
+        inv.track(uiprop2, "Obj.I");
+        inv.setContextObject(context);
+
+        biObj newBiObj = new biObj();
+        newBiObj.setI(3141);
+        context.setObj(newBiObj);
+
+        //assert
+        verify(uiprop1).receiveUpdate(newBiObj);
+        verify(uiprop2).receiveUpdate(eq(3141));
+    }
+
+    public void testCanSendUpdateThroughCompiledPath()
+    {
+        //arrange
+        String simplePath = "Obj.I";
+        biObj context = new biObj();
+        context.setObj(new biObj());
+        BindingInventory inv = new BindingInventory();
+        IUIElement uiprop = mock(IUIElement.class);
+
+        //act
+        inv.track(uiprop, simplePath);
+        inv.setContextObject(context);
+
+        inv.sendUpdate(simplePath, 3141);
+        inv.sendUpdate(simplePath, 2718);
+
+        //assert
+        assertEquals(2718, context.getObj().getI());
+        assertEquals(int.class, inv.dereferencePropertyType(simplePath));
+        verify(uiprop).receiveUpdate(eq(2718));
+    }
+
+    public void testDereferencedValueFollowsSignalledChanges()
+    {
+        //arrange
+        String simplePath = "Obj.I";
+        biObj context = new biObj();
+        context.setObj(new biObj());
+        BindingInventory inv = new BindingInventory();
+        IUIElement uiprop = mock(IUIElement.class);
+
+        //act
+        inv.track(uiprop, simplePath);
+        inv.setContextObject(context);
+        context.getObj().setI(1001);
+        Object first = inv.dereferenceValue(simplePath);
+
+        biObj newBiObj = new biObj();
+        newBiObj.setI(2002);
+        context.setObj(newBiObj);
+        Object second = inv.dereferenceValue(simplePath);
+
+        //assert
+        assertEquals(1001, first);
+        assertEquals(2002, second);
+    }
+
+    public void testBatchSendsOnlyLatestValues()
+    {
+        //arrange
+        biObj context = new biObj();
+        context.setObj(new biObj());
+        BindingInventory inv = new BindingInventory();
+        IUIElement uiprop1 = mock(IUIElement.class);
+        IUIElement uiprop2 = mock(IUIElement.class);
+
+        //act
+        inv.track(uiprop1, "I");
+        inv.track(uiprop2, "Obj.I");
+        inv.setContextObject(context);
+
+        inv.beginBatch();
+        context.setI(1001);
+        context.setI(2002);
+        context.getObj().setI(3003);
+        context.setObj(new biObj());
+        context.getObj().setI(4004);
+        inv.endBatch();
+
+        //assert
+        verify(uiprop1, never()).receiveUpdate(eq(1001));
+        verify(uiprop1).receiveUpdate(eq(2002));
+        verify(uiprop2, never()).receiveUpdate(eq(3003));
+        verify(uiprop2).receiveUpdate(eq(4004));
+    }
+
+    public void testValuesReadInsideABatchAreCurrent()
+    {
+        //arrange
+        biObj context = new biObj();
+        context.setObj(new biObj());
+        BindingInventory inv = new BindingInventory();
+        IUIElement uiprop = mock(IUIElement.class);
+        inv.track(uiprop, "Obj.I");
+        inv.setContextObject(context);
+        context.getObj().setI(1001);
+
+        //act
+        inv.beginBatch();
+        context.getObj().setI(2002);
+        Object changed = inv.dereferenceValue("Obj.I");
+        context.setObj(new biObj());
+        Object replaced = inv.dereferenceValue("Obj.I");
+        inv.endBatch();
+
+        //assert
+        assertEquals(2002, changed);
+        assertEquals(0, replaced);
+        verify(uiprop, never()).receiveUpdate(eq(2002));
+    }
+
+    public void testCanSendSeveralUpdatesAtOnce()
+    {
+        //arrange
+        biObj context = new biObj();
+        context.setObj(new biObj());
+        BindingInventory inv = new BindingInventory();
+        IUIElement uiprop1 = mock(IUIElement.class);
+        IUIElement uiprop2 = mock(IUIElement.class);
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        values.put("I", 1001);
+        values.put("Obj.I", 2002);
+
+        //act
+        inv.track(uiprop1, "I");
+        inv.track(uiprop2, "Obj.I");
+        inv.setContextObject(context);
+        inv.sendUpdates(values);
+
+        //assert
+        assertEquals(1001, context.getI());
+        assertEquals(2002, context.getObj().getI());
+        verify(uiprop1, times(1)).receiveUpdate(eq(1001));
+        verify(uiprop2, times(1)).receiveUpdate(eq(2002));
+    }
+
+    public void testInventoryIsOnlySignalledOfBoundProperties()
+    {
+        //arrange
+        biObj context = new biObj();
+        BindingInventory inv = spy(new BindingInventory());
+        IUIElement uiprop1 = mock(IUIElement.class);
+        IUIElement uiprop2 = mock(IUIElement.class);
+        final ArrayList<PropagationId> changes = new ArrayList<PropagationId>();
+        //events are recycled once handled, so their paths are kept as they come
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                changes.add(((ChangeEvent)invocationOnMock.getArguments()[0]).getPropagationId());
+                return invocationOnMock.callRealMethod();
+            }
+        }).when(inv).onChange(any(ChangeEvent.class));
+
+        //act
+        inv.track(uiprop1, "I");
+        inv.setContextObject(context);
+        context.setObj(new biObj());
+        inv.track(uiprop2, "Obj.I");
+        context.getObj().setI(3141);
+        context.setI(2718);
+
+        //assert
+        verify(inv, never()).onEvent(any(PropagationId.class));
+        assertFalse(changes.contains(PropagationId.of("Obj")));
+        assertTrue(changes.contains(PropagationId.of("Obj.I")));
+        assertTrue(changes.contains(PropagationId.of("I")));
+        verify(uiprop2).receiveUpdate(eq(3141));
+    }
+
+    public void testCanDereferenceRelativePaths()
+    {
+        //arrange
+        biObj rootContext = new biObj();
+        rootContext.setI(1001);
+        biObj childContext = new biObj();
+        childContext.setI(2002);
+
+        BindingInventory rootInv = new BindingInventory();
+        BindingInventory childInv = new BindingInventory(rootInv);
+
+        //act
+        rootInv.setContextObject(rootContext);
+        childInv.setContextObject(childContext);
+
+        //assert
+        assertEquals(2002, childInv.dereferenceValue("I"));
+        assertEquals(1001, childInv.dereferenceValue(".I"));
+        assertEquals(1001, childInv.dereferenceValue("\\I"));
+    }
+
+    public void testRelativePathsFollowNewParentInventory()
+    {
+        //arrange
+        biObj firstContext = new biObj();
+        firstContext.setI(1001);
+        biObj secondContext = new biObj();
+        secondContext.setI(2002);
+
+        BindingInventory firstInv = new BindingInventory();
+        BindingInventory secondInv = new BindingInventory();
+        BindingInventory childInv = new BindingInventory(firstInv);
+        firstInv.setContextObject(firstContext);
+        secondInv.setContextObject(secondContext);
+        childInv.setContextObject(new biObj());
+
+        //act
+        Object first = childInv.dereferenceValue(".I");
+        childInv.setParentInventory(secondInv);
+        Object second = childInv.dereferenceValue(".I");
+
+        //assert
+        assertEquals(1001, first);
+        assertEquals(2002, second);
+        assertSame(secondInv, childInv.getRootInventory());
+    }
+
     public void testCanMergeBindingInventories()
     {
         //arrange
@@ -281,6 +537,544 @@ public class TestBindingInventory extends InstrumentationTestCase
         verify(uiprop3).receiveUpdate(eq(3003));
     }
 
+    public void testRegisteredAccessorsAreUsedBeforeReflection()
+    {
+        //arrange
+        final Property<Object, Object> accessor = new Property<Object, Object>(Object.class, "Value") {
+            @Override
+            public Object get(Object o) {
+                return 3141;
+            }
+        };
+        PropertyStore.registerAccessorFactory(accessedObj.class, new IPropertyAccessorFactory() {
+            @Override
+            public Property<?, ?> createAccessor(String name) {
+                return name.equals("Value") ? accessor : null;
+            }
+        });
+
+        //act
+        Object value = BindingInventory.generalDereferencedValue(new accessedObj(), "Value");
+        Object reflected = BindingInventory.generalDereferencedValue(new accessedObj(), "Other");
+
+        //assert
+        assertEquals(3141, value);
+        assertEquals(2718, reflected);
+    }
+
+    public void testMissingPropertiesAreNotFound()
+    {
+        //arrange
+        //act
+        Property<?, ?> first = PropertyStore.tryFind(accessedObj.class, "Missing");
+        Property<?, ?> second = PropertyStore.tryFind(accessedObj.class, "Missing");
+
+        //assert
+        assertNull(first);
+        assertNull(second);
+        assertSame(PropertyStore.tryFind(accessedObj.class, "Other"), PropertyStore.tryFind(accessedObj.class, "Other"));
+        try
+        {
+            PropertyStore.find(accessedObj.class, "Missing");
+            fail();
+        }
+        catch (RuntimeException ex)
+        {
+        }
+    }
+
+    public void testIntPropertiesReachIntElementsUnboxed()
+    {
+        //arrange
+        PropertyStore.registerAccessorFactory(intObj.class, new IPropertyAccessorFactory() {
+            @Override
+            public Property<?, ?> createAccessor(String name) {
+                if (!name.equals("I"))
+                    return null;
+                return new IntProperty<Object>("I") {
+                    @Override
+                    public int getInt(Object object) {
+                        return ((intObj)object).getI();
+                    }
+
+                    @Override
+                    public void setInt(Object object, int value) {
+                        ((intObj)object).setI(value);
+                    }
+                };
+            }
+        });
+        intObj context = new intObj();
+        IIntUIElement element = mock(IIntUIElement.class);
+        BindingInventory inv = new BindingInventory();
+        inv.setContextObject(context);
+        inv.track(element, "I");
+
+        //act
+        context.setI(42);
+        inv.sendIntUpdate("I", 7);
+
+        //assert
+        verify(element).receiveIntUpdate(42);
+        verify(element).receiveIntUpdate(7);
+        verify(element, never()).receiveUpdate(any());
+        assertEquals(7, context.getI());
+    }
+
+    public void testPathsCanOptOutOfCaching()
+    {
+        //arrange
+        intObj context = new intObj();
+        intObj silentContext = new intObj();
+        BindingInventory inv = new BindingInventory();
+        BindingInventory uncached = new BindingInventory();
+        inv.track(mock(IUIElement.class), "I");
+        uncached.track(mock(IUIElement.class), "I");
+        uncached.disableCaching("I");
+        inv.setContextObject(context);
+        uncached.setContextObject(silentContext);
+        context.setI(1);
+        silentContext.setI(1);
+
+        //act
+        context.i = 2;
+        silentContext.i = 2;
+
+        //assert
+        assertEquals(1, inv.dereferenceValue("I"));
+        assertEquals(2, uncached.dereferenceValue("I"));
+    }
+
+    public void testNullsSentToPrimitiveAccessorsAreIgnored()
+    {
+        //arrange
+        intObj context = new intObj();
+        context.setI(5);
+        IntProperty<Object> accessor = new IntProperty<Object>("I") {
+            @Override
+            public int getInt(Object object) {
+                return ((intObj)object).getI();
+            }
+
+            @Override
+            public void setInt(Object object, int value) {
+                ((intObj)object).setI(value);
+            }
+        };
+
+        //act
+        accessor.set(context, null);
+
+        //assert
+        assertEquals(5, context.getI());
+    }
+
+    public void testGeneratedAccessorsAndScopesArePickedUp()
+    {
+        //arrange
+        generatedObj obj = new generatedObj();
+        BindingInventory inv = new BindingInventory();
+        inv.setContextObject(obj);
+
+        //act
+        Property<?, ?> property = PropertyStore.tryFind(generatedObj.class, "I");
+        inv.sendUpdate("I", 5);
+        Object scope = ScopeBuilder.CreateScope(IGeneratedScope.class);
+        ((IGeneratedScope)scope).setName("named");
+
+        //assert
+        assertTrue(property.getClass().getName().startsWith(generatedObj.class.getName() + "$$Accessors"));
+        assertEquals(5, obj.getI());
+        assertEquals(IGeneratedScope.class.getName() + "$$Scope", scope.getClass().getName());
+        assertEquals("named", ((IGeneratedScope)scope).getName());
+    }
+
+    public void testPropertiesAreIndexedOncePerClass()
+    {
+        //arrange
+        accessedObj obj = new accessedObj();
+
+        //act
+        Object other = BindingInventory.generalDereferencedValue(obj, "Other");
+        Property<?, ?> wrongCase = PropertyStore.tryFind(accessedObj.class, "other");
+        Object getter = BindingInventory.generalDereferencedValue(obj, "Count");
+        Object field = BindingInventory.generalDereferencedValue(obj, "count");
+        Property<?, ?> setterOnly = PropertyStore.tryFind(accessedObj.class, "Target");
+        Property<?, ?> flag = PropertyStore.tryFind(accessedObj.class, "Flag");
+
+        //assert
+        assertEquals(2718, other);
+        assertNull(wrongCase);
+        assertEquals(2, getter);
+        assertEquals(1, field);
+        assertNotNull(setterOnly);
+        assertFalse(setterOnly.isReadOnly());
+        assertEquals(boolean.class, flag.getType());
+        assertTrue(flag.isReadOnly());
+    }
+
+    public void testNumbersAreConvertedToTheSettersType()
+    {
+        //arrange
+        coercedObj obj = new coercedObj();
+        BindingInventory inv = new BindingInventory();
+        inv.setContextObject(obj);
+
+        //act
+        inv.sendUpdate("Ratio", 0.5d);
+        inv.sendUpdate("size", 3);
+
+        //assert
+        assertEquals(0.5f, obj.getRatio());
+        assertEquals(3L, obj.size);
+    }
+
+    public void testTextIsConvertedToThePropertyType()
+    {
+        //arrange
+        IValueConverter custom = new IValueConverter() {
+            @Override
+            public Object fromString(String text) {
+                return new convertedObj();
+            }
+        };
+        ValueConverters.register(convertedObj.class, custom);
+
+        //act
+        Object number = ValueConverters.forType(int.class).fromString("12");
+        Object notANumber = ValueConverters.forType(Integer.class).fromString("-");
+        Object flag = ValueConverters.forType(boolean.class).fromString("true");
+        Object text = ValueConverters.forType(CharSequence.class).fromString("abc");
+
+        //assert
+        assertEquals(12, number);
+        assertNull(notANumber);
+        assertEquals(true, flag);
+        assertEquals("abc", text);
+        assertSame(custom, ValueConverters.forType(convertedObj.class));
+        assertSame(ValueConverters.forType(long.class), ValueConverters.forType(long.class));
+    }
+
+    public void testClearingTheContextStopsSignals()
+    {
+        //arrange
+        biObj context = new biObj();
+        BindingInventory inv = spy(new BindingInventory());
+        IUIElement uiprop = mock(IUIElement.class);
+        inv.track(uiprop, "I");
+        inv.setContextObject(context);
+
+        //act
+        inv.setContextObject(null);
+        context.setI(42);
+
+        //assert
+        assertNull(inv.getContextObject());
+        verify(inv, never()).onEvent(any(PropagationId.class));
+        verify(inv, never()).onChange(any(ChangeEvent.class));
+    }
+
+    public void testChangedValuesAreNotReadBack()
+    {
+        //arrange
+        countedObj context = new countedObj();
+        BindingInventory inv = new BindingInventory();
+        IUIElement uiprop = mock(IUIElement.class);
+        inv.track(uiprop, "I");
+        inv.setContextObject(context);
+        int reads = context.reads;
+
+        //act
+        context.setI(5);
+
+        //assert
+        verify(uiprop).receiveUpdate(eq(5));
+        assertEquals(reads, context.reads);
+    }
+
+    public void testReplacedScopesReachElementsAsTheirSource()
+    {
+        //arrange
+        IOuterScope outer = (IOuterScope)ScopeBuilder.CreateScope(IOuterScope.class);
+        BindingInventory inv = new BindingInventory();
+        IUIElement parent = mock(IUIElement.class);
+        IUIElement child = mock(IUIElement.class);
+        inv.track(parent, "Inner");
+        inv.track(child, "Inner.Name");
+        inv.setContextObject(outer);
+        INestedScope inner = (INestedScope)ScopeBuilder.CreateScope(INestedScope.class);
+        inner.setName("abc");
+
+        //act
+        outer.setInner(inner);
+
+        //assert
+        verify(parent).receiveUpdate(((IProxyObservableObject)inner).getProxyObservableObject().getSource());
+        verify(child).receiveUpdate(eq("abc"));
+        assertEquals("abc", inv.dereferenceValue("Inner.Name"));
+    }
+
+    public interface INestedScope
+    {
+        String getName();
+        void setName(String name);
+    }
+
+    public interface IOuterScope
+    {
+        INestedScope getInner();
+        void setInner(INestedScope inner);
+    }
+
+    public static class countedObj
+        extends ObservableObject
+    {
+        private static PropertyStore store = new PropertyStore(countedObj.class);
+
+        @Override
+        public PropertyStore getPropertyStore()
+        {
+            return store;
+        }
+
+        int reads;
+        private int i;
+        public int getI()
+        {
+            reads++;
+            return i;
+        }
+
+        public void setI(int n)
+        {
+            notifyListener("I", i, i=n);
+        }
+    }
+
+    public void testConverterIsResolvedOnceAcrossEdits()
+    {
+        //arrange
+        biObj context = new biObj();
+        BindingInventory inv = new BindingInventory();
+        IViewBinding viewBinding = mock(IViewBinding.class);
+        IProxyViewBinding proxy = mock(IProxyViewBinding.class);
+        when(proxy.getProxyViewBinding()).thenReturn(viewBinding);
+        when(viewBinding.getBindingInventory()).thenReturn(inv);
+        countingUIProperty prop = new countingUIProperty(proxy, "I");
+        prop.setUIUpdateListener(mock(IUIElement.IUIUpdateListener.class));
+        inv.track(prop, "I");
+        inv.setContextObject(context);
+
+        //act
+        prop.sendText("1");
+        prop.sendText("12");
+        prop.sendText("123");
+
+        //assert
+        assertEquals(123, context.getI());
+        assertEquals(1, prop.typeResolutions);
+    }
+
+    public void testValuesTheWidgetMayNoLongerShowAreSentAgain()
+    {
+        //arrange
+        biObj context = new biObj();
+        BindingInventory inv = new BindingInventory();
+        IViewBinding viewBinding = mock(IViewBinding.class);
+        IProxyViewBinding proxy = mock(IProxyViewBinding.class);
+        when(proxy.getProxyViewBinding()).thenReturn(viewBinding);
+        when(viewBinding.getBindingInventory()).thenReturn(inv);
+        final countingUIProperty prop = new countingUIProperty(proxy, "I");
+        final ArrayList<Object> shown = new ArrayList<Object>();
+        final boolean[] lockedOnUpdate = new boolean[1];
+        prop.setUIUpdateListener(new IUIElement.IUIUpdateListener<Object>()
+        {
+            @Override
+            public void onUpdate(Object value)
+            {
+                lockedOnUpdate[0] |= Thread.holdsLock(prop);
+                shown.add(value);
+            }
+        });
+        inv.track(prop, "I");
+        inv.setContextObject(context);
+        prop.receiveUpdate(0);
+
+        //act
+        prop.sendText("not a number");
+        prop.receiveUpdate(0);
+        prop.track(new BindingInventory());
+        prop.receiveUpdate(0);
+
+        //assert
+        assertEquals(3, shown.size());
+        assertFalse(lockedOnUpdate[0]);
+    }
+
+    public static class countingUIProperty
+        extends UIProperty<Object>
+    {
+        int typeResolutions;
+
+        public countingUIProperty(IProxyViewBinding viewBinding, String path)
+        {
+            super(viewBinding);
+            this.path = path;
+        }
+
+        @Override
+        public Class<?> getDereferencedPathType()
+        {
+            typeResolutions++;
+            return super.getDereferencedPathType();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testGenericOverridesAreTypedByTheOverride()
+    {
+        //arrange
+        stringHolder holder = new stringHolder();
+
+        //act
+        Property<Object,Object> item = (Property<Object,Object>)PropertyStore.tryFind(stringHolder.class, "Item");
+        item.set(holder, "abc");
+
+        //assert
+        assertEquals(String.class, (Object)item.getType());
+        assertFalse(item.isReadOnly());
+        assertEquals("abc", holder.getItem());
+    }
+
+    public static class holder<T>
+    {
+        private T item;
+
+        public T getItem()
+        {
+            return item;
+        }
+
+        public void setItem(T item)
+        {
+            this.item = item;
+        }
+    }
+
+    public static class stringHolder
+        extends holder<String>
+    {
+        @Override
+        public String getItem()
+        {
+            return super.getItem();
+        }
+    }
+
+    public static class coercedObj
+    {
+        private float ratio;
+        public long size;
+
+        public float getRatio()
+        {
+            return ratio;
+        }
+
+        public void setRatio(float ratio)
+        {
+            this.ratio = ratio;
+        }
+    }
+
+    public static class intObj
+    extends ObservableObject
+    {
+        private static PropertyStore store = new PropertyStore(intObj.class);
+
+        @Override
+        public PropertyStore getPropertyStore()
+        {
+            return store;
+        }
+
+        int i;
+        public int getI()
+        {
+            return i;
+        }
+
+        public void setI(int n)
+        {
+            notifyListener("I", i, i=n);
+        }
+    }
+
+    @Bindable
+    public static class generatedObj
+    extends ObservableObject
+    {
+        private static PropertyStore store = new PropertyStore(generatedObj.class);
+
+        @Override
+        public PropertyStore getPropertyStore()
+        {
+            return store;
+        }
+
+        int i;
+        public int getI()
+        {
+            return i;
+        }
+
+        public void setI(int n)
+        {
+            notifyListener("I", i, i=n);
+        }
+    }
+
+    @Bindable
+    public interface IGeneratedScope
+    {
+        String getName();
+        void setName(String name);
+    }
+
+    //only converted by testTextIsConvertedToThePropertyType, converters can't be unregistered
+    public static class convertedObj
+    {
+    }
+
+    public static class accessedObj
+    {
+        public int count = 1;
+
+        public int getCount()
+        {
+            return 2;
+        }
+
+        public int getValue()
+        {
+            return 0;
+        }
+
+        public int getOther()
+        {
+            return 2718;
+        }
+
+        public boolean isFlag()
+        {
+            return true;
+        }
+
+        public void setTarget(String target)
+        {
+        }
+    }
+
 	public static class biObj
 	extends ObservableObject
 	{
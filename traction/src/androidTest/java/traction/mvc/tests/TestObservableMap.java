@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import traction.mvc.implementations.PropagationId;
 import traction.mvc.observables.ObservableMap;
 import traction.mvc.observables.ObservableObject;
 import traction.mvc.observables.OnPropertyChangedEvent;
@@ -80,12 +81,12 @@ public class TestObservableMap
         map.put("key", new Object());
 
         //assert
-        ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PropagationId> argument = ArgumentCaptor.forClass(PropagationId.class);
         verify(listener).onEvent(argument.capture());
 
-        String arg = argument.getValue();
+        PropagationId arg = argument.getValue();
 
-        assertEquals("key", arg);
+        assertEquals("key", arg.toString());
     }
 
     public void testCanPutObjectAndNotifyOnUpdate()
@@ -101,12 +102,36 @@ public class TestObservableMap
         map.put("key", t);
 
         //assert
-        ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PropagationId> argument = ArgumentCaptor.forClass(PropagationId.class);
         verify(listener).onEvent(argument.capture());
 
-        String arg = argument.getValue();
+        PropagationId arg = argument.getValue();
 
-        assertEquals("key", arg);
+        assertEquals("key", arg.toString());
+    }
+
+    public void testDottedKeysCanBePutAndRemoved()
+    {
+        //arrange
+        ObservableMap map = createMap();
+        OnPropertyChangedEvent listener = mock(OnPropertyChangedEvent.class);
+        map.addOnChange(listener);
+
+        //act
+        map.put("v1.", 3);
+        map.put(".v2..x", 4);
+        map.remove("v1.");
+
+        //assert
+        ArgumentCaptor<PropagationId> argument = ArgumentCaptor.forClass(PropagationId.class);
+        verify(listener, times(3)).onEvent(argument.capture());
+
+        List<PropagationId> args = argument.getAllValues();
+        assertEquals("v1.", args.get(0).toString());
+        assertEquals(".v2..x", args.get(1).toString());
+        assertEquals("v1.", args.get(2).toString());
+        assertEquals(4, map.get(".v2..x"));
+        assertFalse(map.containsKey("v1."));
     }
 
     public void testObservablePropertiesSignalObservableMap()
@@ -123,13 +148,13 @@ public class TestObservableMap
         obj.setMyInt(3141);
 
         //assert
-        ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PropagationId> argument = ArgumentCaptor.forClass(PropagationId.class);
         verify(listener, times(2)).onEvent(argument.capture());
 
-        List<String> args = argument.getAllValues();
-        assertEquals("key.MyInt", args.get(0));
+        List<PropagationId> args = argument.getAllValues();
+        assertEquals("key.MyInt", args.get(0).toString());
         //this should only run once?!!
-        //assertEquals("key.MyInt", args.get(1));
+        //assertEquals("key.MyInt", args.get(1).toString());
     }
 
     public void testObservablePropertiesSignalObservableMapWithCorrectObj()
@@ -149,7 +174,7 @@ public class TestObservableMap
         obj2.setMyShort((short)18);
 
         //assert
-        verify(listener, times(2)).onEvent(anyString());
+        verify(listener, times(2)).onEvent(any(PropagationId.class));
     }
 
     public void testCanClearAll()
@@ -172,7 +197,7 @@ public class TestObservableMap
         obj2.setMyShort((short)18);//3
 
         //assert
-        verify(listener, times(3)).onEvent(anyString());
+        verify(listener, times(3)).onEvent(any(PropagationId.class));
     }
 
     public void testCanRemoveByKey()
@@ -191,11 +216,11 @@ public class TestObservableMap
         obj.setMyInt(3141);
 
         //assert
-        ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PropagationId> argument = ArgumentCaptor.forClass(PropagationId.class);
         verify(listener, times(1)).onEvent(argument.capture());
 
-        String arg = argument.getValue();
-        assertEquals("key", arg);
+        PropagationId arg = argument.getValue();
+        assertEquals("key", arg.toString());
         assertEquals(obj, returnObj);
     }
 
@@ -220,7 +245,7 @@ public class TestObservableMap
         obj2.setMyShort((short)18);
 
         //assert
-        verify(listener, times(2)).onEvent(anyString());
+        verify(listener, times(2)).onEvent(any(PropagationId.class));
     }
 
     public void testPutAllReplacesExistingKeys()
@@ -245,12 +270,12 @@ public class TestObservableMap
         obj2.setMyShort((short)18);
 
         //assert
-        ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PropagationId> argument = ArgumentCaptor.forClass(PropagationId.class);
         verify(listener, times(2)).onEvent(argument.capture());
 
-        List<String> vs = argument.getAllValues();
-        assertEquals("key.MyInt", vs.get(0));
-        assertEquals("key.MyShort", vs.get(1));
+        List<PropagationId> vs = argument.getAllValues();
+        assertEquals("key.MyInt", vs.get(0).toString());
+        assertEquals("key.MyShort", vs.get(1).toString());
     }
 
     public void testCanGetProperty()
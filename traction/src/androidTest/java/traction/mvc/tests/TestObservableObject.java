@@ -17,8 +17,13 @@ package traction.mvc.tests;
 
 import android.test.InstrumentationTestCase;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+
 import org.mockito.ArgumentCaptor;
 
+import traction.mvc.implementations.PropagationId;
 import traction.mvc.observables.ObservableObject;
 import traction.mvc.observables.OnPropertyChangedEvent;
 import traction.mvc.observables.PropertyStore;
@@ -59,13 +64,322 @@ public class TestObservableObject extends InstrumentationTestCase
 		obj.notifyListener("prop", "Old", "New");
 		
 		//assert
-        ArgumentCaptor<String> argument = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PropagationId> argument = ArgumentCaptor.forClass(PropagationId.class);
 		verify(listen).onEvent(argument.capture());
 
-        String arg = argument.getValue();
+        PropagationId arg = argument.getValue();
+
+        assertEquals("prop", arg.toString());
+	}
+	public void testListenersRemovedDuringNotificationAreNotSignalled()
+	{
+		//arrange
+		final ObservableObject obj = createObj();
+		final OnPropertyChangedEvent removed = mock(OnPropertyChangedEvent.class);
+		OnPropertyChangedEvent remover = new OnPropertyChangedEvent()
+		{
+			@Override
+			protected void onChange(String propertyName, Object oldValue, Object newValue)
+			{
+				obj.removeOnChange(removed);
+			}
+		};
+		OnPropertyChangedEvent twice = mock(OnPropertyChangedEvent.class);
+		obj.addOnChange(remover);
+		obj.addOnChange(removed);
+		obj.addOnChange(twice);
+		obj.addOnChange(twice);
+
+		//act
+		obj.notifyListener("prop", "Old", "New");
+
+		//assert
+		verify(removed, never()).onEvent(any(PropagationId.class));
+		verify(twice, times(2)).onEvent(any(PropagationId.class));
+	}
+
+	public void testFilteredListenersAreOnlySignalledOfTheirProperties()
+	{
+		//arrange
+		ObservableObject obj = createObj();
+		OnPropertyChangedEvent filtered = mock(OnPropertyChangedEvent.class);
+		OnPropertyChangedEvent everything = mock(OnPropertyChangedEvent.class);
+		obj.addOnChange(filtered, "prop");
+		obj.addOnChange(everything);
+
+		//act
+		obj.notifyListener("other", "Old", "New");
+		obj.notifyListener("prop", "Old", "New");
+		obj.notifyListener();
+
+		//assert
+		verify(filtered, never()).onEvent(PropagationId.of("other"));
+		verify(filtered).onEvent(PropagationId.of("prop"));
+		verify(filtered).onEvent((PropagationId)isNull());
+		verify(everything, times(3)).onEvent(any(PropagationId.class));
+	}
+
+	public void testListenersAddedWithoutPropertiesAreSignalledOfEverything()
+	{
+		//arrange
+		ObservableObject obj = createObj();
+		OnPropertyChangedEvent filteredFirst = mock(OnPropertyChangedEvent.class);
+		OnPropertyChangedEvent unfilteredFirst = mock(OnPropertyChangedEvent.class);
+		obj.addOnChange(filteredFirst, "prop");
+		obj.addOnChange(filteredFirst);
+		obj.addOnChange(unfilteredFirst);
+		obj.addOnChange(unfilteredFirst, "prop");
+		obj.notifyListener("other", "Old", "New");
+
+		//act
+		obj.removeOnChange(unfilteredFirst);
+		obj.notifyListener("other", "Old", "New");
+		obj.notifyListener("prop", "Old", "New");
+
+		//assert
+		verify(filteredFirst, times(4)).onEvent(PropagationId.of("other"));
+		verify(filteredFirst, times(2)).onEvent(PropagationId.of("prop"));
+		verify(unfilteredFirst, times(2)).onEvent(PropagationId.of("other"));
+		verify(unfilteredFirst).onEvent(PropagationId.of("prop"));
+	}
+
+	public void testSignalsByDottedStringStillReachListeners()
+	{
+		//arrange
+		final ArrayList<String> overridden = new ArrayList<String>();
+		OOTEST obj = new OOTEST()
+		{
+			@Override
+			protected void notifyListenerInternal(String propertyName, Object oldValue, Object newValue)
+			{
+				overridden.add(propertyName);
+				super.notifyListenerInternal(propertyName, oldValue, newValue);
+			}
+		};
+		OnPropertyChangedEvent listener = mock(OnPropertyChangedEvent.class);
+		obj.addOnChange(listener);
+
+		//act
+		obj.notifyListener("prop", "Old", "New");
+		obj.onEvent("source.prop");
+
+		//assert
+		assertEquals(Arrays.asList("prop"), overridden);
+		verify(listener).onEvent(PropagationId.of("prop"));
+		verify(listener).onEvent(PropagationId.of("source.prop"));
+	}
+
+	public void testWeakListenersAreNotKeptAlive()
+	{
+		//arrange
+		ObservableObject obj = createObj();
+		final int[] signals = new int[1];
+		OnPropertyChangedEvent listener = new OnPropertyChangedEvent()
+		{
+			@Override
+			protected void onChange(String propertyName, Object oldValue, Object newValue)
+			{
+				signals[0]++;
+			}
+		};
+		WeakReference<OnPropertyChangedEvent> tracked = new WeakReference<OnPropertyChangedEvent>(listener);
+		obj.addWeakOnChange(listener);
+		obj.notifyListener("prop", "Old", "New");
+
+		//act
+		listener = null;
+		for(int i=0;i<20 && tracked.get() != null;i++)
+		{
+			System.gc();
+			System.runFinalization();
+		}
+		obj.notifyListener("prop", "New", "Newer");
+
+		//assert
+		assertEquals(1, signals[0]);
+		assertNull(tracked.get());
+	}
+
+	public void testChangesMadeDuringNotificationAreSentAfterIt()
+	{
+		//arrange
+		final ObservableObject obj = createObj();
+		final ArrayList<String> changes = new ArrayList<String>();
+		obj.addOnChange(new OnPropertyChangedEvent()
+		{
+			@Override
+			protected void onChange(String propertyName, Object oldValue, Object newValue)
+			{
+				if ("prop".equals(propertyName))
+					obj.notifyListener("other", null, "Changed");
+			}
+		});
+		obj.addOnChange(new OnPropertyChangedEvent()
+		{
+			@Override
+			protected void onChange(String propertyName, Object oldValue, Object newValue)
+			{
+				changes.add(propertyName);
+			}
+		});
+
+		//act
+		obj.notifyListener("prop", "Old", "New");
+
+		//assert
+		assertEquals(2, changes.size());
+		assertEquals("prop", changes.get(0));
+		assertEquals("other", changes.get(1));
+	}
+
+	public void testFeedbackLoopsAreBroken()
+	{
+		//arrange
+		final ObservableObject obj = createObj();
+		final int[] signals = new int[1];
+		final Object[] last = new Object[1];
+		obj.addOnChange(new OnPropertyChangedEvent()
+		{
+			@Override
+			protected void onChange(String propertyName, Object oldValue, Object newValue)
+			{
+				signals[0]++;
+				last[0] = newValue;
+				obj.notifyListener("prop", newValue, (Integer)newValue + 1);
+			}
+		});
+
+		//act
+		obj.notifyListener("prop", 0, 1);
+
+		//assert
+		//the first signal, 32 repeats, then the value held back once the loop was found
+		assertEquals(34, signals[0]);
+		assertEquals(34, last[0]);
+	}
+
+	public void testCascadesRepeatingAPathAreNotTakenAsLoops()
+	{
+		//arrange
+		final ObservableObject obj = createObj();
+		final ArrayList<Object> counts = new ArrayList<Object>();
+		obj.addOnChange(new OnPropertyChangedEvent()
+		{
+			@Override
+			protected void onChange(String propertyName, Object oldValue, Object newValue)
+			{
+				if ("count".equals(propertyName))
+				{
+					counts.add(newValue);
+					return;
+				}
+				//each step updates the count and sets off the next step
+				int step = Integer.parseInt(propertyName.substring(4));
+				obj.notifyListener("count", step, step + 1);
+				if (step < 39)
+					obj.notifyListener("step" + (step + 1), null, null);
+			}
+		});
+
+		//act
+		obj.notifyListener("step0", null, null);
+
+		//assert
+		assertEquals(40, counts.size());
+		for(int i=0;i<40;i++)
+			assertEquals(i + 1, counts.get(i));
+	}
+
+	public void testListenerExceptionsDoNotDropQueuedSignals()
+	{
+		//arrange
+		final ObservableObject obj = createObj();
+		final RuntimeException thrown = new RuntimeException();
+		final ArrayList<String> seen = new ArrayList<String>();
+		obj.addOnChange(new OnPropertyChangedEvent()
+		{
+			@Override
+			protected void onChange(String propertyName, Object oldValue, Object newValue)
+			{
+				if ("prop".equals(propertyName))
+				{
+					obj.notifyListener("failing", null, null);
+					obj.notifyListener("other", null, null);
+				}
+				else if ("failing".equals(propertyName))
+					throw thrown;
+				seen.add(propertyName);
+			}
+		});
+
+		//act
+		RuntimeException caught = null;
+		try
+		{
+			obj.notifyListener("prop", null, null);
+		}
+		catch(RuntimeException ex)
+		{
+			caught = ex;
+		}
+
+		//assert
+		assertSame(thrown, caught);
+		assertEquals(Arrays.asList("prop", "other"), seen);
+	}
+
+	public void testPropagationIdsAreInterned()
+	{
+		//arrange
+		PropagationId member = PropagationId.of("prop");
+
+		//act
+		PropagationId prefixed = member.prefix("source");
+
+		//assert
+		assertSame(prefixed, member.prefix("source"));
+		assertSame(prefixed, PropagationId.of("source.prop"));
+		assertSame(member, prefixed.getTail());
+		assertEquals("source.prop", prefixed.toString());
+	}
+
+	public void testPropagationIdsStillCompareEqualPastTheInternBound()
+	{
+		//arrange
+		PropagationId member = PropagationId.of("bounded");
+		PropagationId first = member.prefix("source0");
+		for(int i=1;i<2000;i++)
+		{
+			PropagationId.of("key" + i);
+			member.prefix("source" + i);
+		}
+
+		//act
+		PropagationId again = member.prefix("source0");
 
-        assertEquals("prop", arg);
+		//assert
+		assertNotSame(first, again);
+		assertEquals(first, again);
+		assertEquals(first.hashCode(), again.hashCode());
+		assertEquals("source0.bounded", again.toString());
 	}
+
+	public void testPropagationIdsKeepEmptyMembers()
+	{
+		String[] paths = {"a.", ".a", "a..b", "."};
+		for(String path : paths)
+		{
+			//act
+			PropagationId id = PropagationId.of(path);
+
+			//assert
+			assertEquals(path, id.toString());
+			assertEquals(id, PropagationId.of(path));
+		}
+		assertEquals("", PropagationId.of(".a").getHead());
+		assertEquals("a", PropagationId.of("a.").getHead());
+	}
+
 	private ObservableObject createObj()
 	{
 		return new OOTEST();
@@ -0,0 +1,68 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc;
+
+import android.os.Process;
+
+import traction.mvc.implementations.ViewBindingFactory;
+import traction.mvc.observables.PropertyStore;
+import traction.mvc.observables.ScopeBuilder;
+import traction.mvc.util.Log;
+
+/**
+ * Entry points for setting up the library as a whole.
+ * @author Tim Stratton
+ *
+ */
+public final class Traction
+{
+    private Traction(){}
+
+    /**
+     * Resolves, on a background thread, what the first inflation binding to the given models would otherwise look up:
+     * their properties and generated accessors, scope implementations and the view binding classes. Call it as early
+     * as possible, e.g. from Application.onCreate; bindings that get there first just resolve things themselves.
+     * @param models : classes and scope interfaces layouts bind to. Classes they reference are not included.
+     */
+    public static void prewarm(final Class<?>... models)
+    {
+        Thread thread = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                ViewBindingFactory.prewarm();
+                for(int i=0;i<models.length;i++)
+                {
+                    try
+                    {
+                        if (models[i].isInterface())
+                            ScopeBuilder.prewarm(models[i]);
+                        else
+                            PropertyStore.prewarm(models[i]);
+                    }
+                    catch (Exception ex)
+                    {
+                        Log.e("Could not prewarm '"+models[i].getName()+"'", ex);
+                    }
+                }
+            }
+        }, "traction-prewarm");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,35 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a model class or a scope interface for the traction compiler. For a class, it generates direct accessors for
+ * the class's properties (ClassName$$Accessors); for a scope interface, an implementation of the scope
+ * (InterfaceName$$Scope) used by ScopeBuilder instead of a reflective proxy. Both are picked up at runtime when
+ * present, and reflection is used otherwise.
+ * @author Tim Stratton
+ *
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface Bindable
+{
+}
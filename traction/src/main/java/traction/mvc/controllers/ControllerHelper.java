@@ -17,6 +17,7 @@ package traction.mvc.controllers;
 
 import traction.mvc.observables.BindingInventory;
 import traction.mvc.implementations.ViewBindingFactory;
+import traction.mvc.implementations.PropagationId;
 import traction.mvc.implementations.ViewFactory;
 import traction.mvc.implementations.ui.menubinding.MenuInflater;
 import traction.mvc.interfaces.IViewBinding;
@@ -98,7 +99,7 @@ public class ControllerHelper
 	private IObjectListener invalidateMenuListener = new IObjectListener()
 	{
         @Override
-        public void onEvent(String propagationId)
+        public void onEvent(PropagationId propagationId)
         {
             if (propagationId == null)
                 invalidateMenu();
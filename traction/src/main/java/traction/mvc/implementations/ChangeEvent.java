@@ -0,0 +1,104 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.implementations;
+
+/**
+ * A change bubbling up through observable objects: its path, and the values before and after it. Events are pooled;
+ * a listener must not hold on to one after it returns.
+ * @author Tim Stratton
+ *
+ */
+public final class ChangeEvent
+{
+    private static final int MAX_POOL_SIZE = 16;
+
+    private static final Object poolLock = new Object();
+    private static ChangeEvent pool;
+    private static int poolSize;
+
+    private ChangeEvent next;
+
+    private PropagationId propagationId;
+    private Object oldValue;
+    private Object newValue;
+
+    private ChangeEvent()
+    {
+    }
+
+    /**
+     * Gets an event from the pool, or a new one if the pool is empty
+     * @param propagationId : path of the change
+     * @param oldValue : value before the change
+     * @param newValue : value the path has now
+     */
+    public static ChangeEvent obtain(PropagationId propagationId, Object oldValue, Object newValue)
+    {
+        ChangeEvent event = null;
+        synchronized (poolLock)
+        {
+            if (pool != null)
+            {
+                event = pool;
+                pool = event.next;
+                event.next = null;
+                poolSize--;
+            }
+        }
+        if (event == null)
+            event = new ChangeEvent();
+
+        event.propagationId = propagationId;
+        event.oldValue = oldValue;
+        event.newValue = newValue;
+        return event;
+    }
+
+    /**
+     * Returns the event to the pool. It must not be used afterwards.
+     */
+    public void recycle()
+    {
+        propagationId = null;
+        oldValue = null;
+        newValue = null;
+
+        synchronized (poolLock)
+        {
+            if (poolSize < MAX_POOL_SIZE)
+            {
+                next = pool;
+                pool = this;
+                poolSize++;
+            }
+        }
+    }
+
+    public PropagationId getPropagationId()
+    {
+        return propagationId;
+    }
+
+    public Object getOldValue()
+    {
+        return oldValue;
+    }
+
+    public Object getNewValue()
+    {
+        return newValue;
+    }
+}
@@ -16,17 +16,116 @@
 package traction.mvc.implementations;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import traction.mvc.interfaces.IUIElement;
+import traction.mvc.observables.BindingPath;
 
 /**
- * Object to hold list of ui elements for the binding inventory
+ * Node of the binding inventory's path tree. Holds the list of ui elements bound to one path, the compiled path
+ * itself and the nodes for the paths one member further down.
+ * Cached values are only dropped when a path, or a path above it, is signalled as changed. That assumes every property
+ * along the path signals its own changes; a path through a property that doesn't should not be cached, see
+ * setCacheable.
  * @author Tim Stratton
  *
  */
 public class PathBinding
 {
 	private final ArrayList<IUIElement<?>> uiElements = new ArrayList<IUIElement<?>>();
+	private final BindingPath bindingPath;
+	private final PathBinding parent;
+
+	//last value resolved for the path, null if there is none
+	private volatile CachedValue cachedValue;
+
+	//false if this path, and so every path under it, may change without being signalled
+	private volatile boolean cacheable = true;
+
+	//generation this path was last signalled as changed
+	private volatile long invalidatedGeneration;
+
+	//children by member name for lookups, and as a list to walk without allocating an iterator
+	private final HashMap<String, PathBinding> childrenByName = new HashMap<String, PathBinding>();
+	private final ArrayList<PathBinding> children = new ArrayList<PathBinding>();
+
+	public PathBinding(BindingPath bindingPath)
+	{
+		this(bindingPath, null);
+	}
+
+	private PathBinding(BindingPath bindingPath, PathBinding parent)
+	{
+		this.bindingPath = bindingPath;
+		this.parent = parent;
+	}
+
+	/**
+	 * @return : node one member up from this one, or null if this is a root
+	 */
+	public PathBinding getParent()
+	{
+		return parent;
+	}
+
+	/**
+	 * Marks this path, and so every path under it, as changed
+	 * @param generation : generation of the change; values cached before it are no longer valid
+	 */
+	public void invalidate(long generation)
+	{
+		invalidatedGeneration = generation;
+	}
+
+	/**
+	 * Sets whether values of this path, and of every path under it, may be cached
+	 * @param cacheable : false if a property along the path can change without signalling
+	 */
+	public void setCacheable(boolean cacheable)
+	{
+		this.cacheable = cacheable;
+		if (!cacheable)
+			cachedValue = null;
+	}
+
+	/**
+	 * Caches the value of this path
+	 * @param value : resolved value
+	 * @param generation : generation read before the value was resolved
+	 */
+	public void setCachedValue(Object value, long generation)
+	{
+		if (cacheable)
+			cachedValue = new CachedValue(value, generation);
+	}
+
+	/**
+	 * Gets the cached value of this path, if neither this path nor any path above it changed since it was cached
+	 * @param noValue : returned when there is no valid cached value
+	 * @return : cached value, or noValue
+	 */
+	public Object getCachedValue(Object noValue)
+	{
+		CachedValue cached = cachedValue;
+		if (cached == null)
+			return noValue;
+
+		for(PathBinding node = this; node != null; node = node.parent)
+		{
+			if (!node.cacheable || node.invalidatedGeneration > cached.generation)
+				return noValue;
+		}
+		return cached.value;
+	}
+
+	/**
+	 * Gets the compiled path the ui elements are bound to
+	 * @return : compiled path
+	 */
+	public BindingPath getBindingPath()
+	{
+		return bindingPath;
+	}
 
 	/**
 	 * Adds a ui element to the Path biding
@@ -35,8 +134,8 @@ public class PathBinding
 	public void addUIElement(IUIElement<?> element)
 	{
 		uiElements.add(element);
-	}	
-	
+	}
+
 	/**
 	 * Gets all ui elements tracked to this path so far
 	 * @return
@@ -45,4 +144,55 @@ public class PathBinding
 	{
 		return uiElements;
 	}
+
+	/**
+	 * Gets the node one member down from this one
+	 * @param member : name of the member
+	 * @return : child node, or null if nothing is bound under that member
+	 */
+	public PathBinding getChild(String member)
+	{
+		return childrenByName.get(member);
+	}
+
+	/**
+	 * Gets the node one member down from this one, creating it if needed
+	 * @param member : name of the member
+	 * @return : child node
+	 */
+	public PathBinding getOrAddChild(String member)
+	{
+		PathBinding child = childrenByName.get(member);
+		if (child == null)
+		{
+			child = new PathBinding(bindingPath.child(member), this);
+			childrenByName.put(member, child);
+			children.add(child);
+		}
+		return child;
+	}
+
+	/**
+	 * Gets all nodes one member down from this one
+	 * @return
+	 */
+	public ArrayList<PathBinding> getChildren()
+	{
+		return children;
+	}
+
+	/**
+	 * A resolved value and the generation it was resolved at, published as one
+	 */
+	private static class CachedValue
+	{
+		final Object value;
+		final long generation;
+
+		CachedValue(Object value, long generation)
+		{
+			this.value = value;
+			this.generation = generation;
+		}
+	}
 }
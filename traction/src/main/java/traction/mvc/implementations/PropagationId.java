@@ -0,0 +1,197 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.implementations;
+
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Path of a change, as it bubbles up through observable objects: the first member, and the path under it.
+ * Ids are interned, so prefixing an id with a source usually returns the same instance and the dotted string form is
+ * only built when asked for. The interned ids are bounded, as paths may be made from data like map keys; a full table
+ * is dropped and starts over, so ids must be compared with equals.
+ * @author Tim Stratton
+ *
+ */
+public final class PropagationId
+{
+    //most paths interned, and most sources interned for each id
+    private final static int MAX_INTERNED_PATHS = 1024;
+    private final static int MAX_INTERNED_PREFIXES = 64;
+
+    //ids by the path they were asked for with
+    private final static ConcurrentHashMap<String, PropagationId> members = new ConcurrentHashMap<String, PropagationId>();
+
+    private final String head;
+    private final PropagationId tail;
+    private final int hash;
+    private volatile String path;
+
+    //ids made by prefixing this one with a source
+    private final HashMap<String, PropagationId> prefixed = new HashMap<String, PropagationId>();
+
+    private PropagationId(String head, PropagationId tail)
+    {
+        this.head = head;
+        this.tail = tail;
+        this.hash = head.hashCode() * 31 + (tail == null ? 0 : tail.hash);
+    }
+
+    /**
+     * Gets the id of a path
+     * @param path : dotted path of the change, relative to the object signalling it
+     * @return : id, or null if the path is null or empty. Members may be empty, as in "a." or "a..b", since paths
+     * can be made from data like map keys.
+     */
+    public static PropagationId of(String path)
+    {
+        if (path == null || path.length() == 0)
+            return null;
+
+        PropagationId id = members.get(path);
+        if (id != null)
+            return id;
+
+        int dot = path.lastIndexOf('.');
+        if (dot >= 0)
+        {
+            //a dotted path is its last member, prefixed by each member before it
+            String last = path.substring(dot + 1);
+            id = last.length() == 0 ? new PropagationId(last, null) : of(last);
+            int end = dot;
+            while(end >= 0)
+            {
+                int start = path.lastIndexOf('.', end - 1);
+                id = id.prefixMember(path.substring(start + 1, end));
+                end = start;
+            }
+        }
+        else
+        {
+            id = new PropagationId(path, null);
+        }
+
+        if (members.size() >= MAX_INTERNED_PATHS)
+            members.clear();
+        PropagationId existing = members.putIfAbsent(path, id);
+        return existing == null ? id : existing;
+    }
+
+    /**
+     * Gets the id of this path as seen from the object owning the given source
+     * @param source : name of the member this path is under
+     * @return : interned id; this id if the source is null or empty
+     */
+    public PropagationId prefix(String source)
+    {
+        if (source == null || source.length() == 0)
+            return this;
+        return prefixMember(source);
+    }
+
+    /**
+     * Same as prefix, but an empty member is kept as a member of the path
+     */
+    private PropagationId prefixMember(String member)
+    {
+        synchronized (prefixed)
+        {
+            PropagationId id = prefixed.get(member);
+            if (id == null)
+            {
+                id = new PropagationId(member, this);
+                if (prefixed.size() >= MAX_INTERNED_PREFIXES)
+                    prefixed.clear();
+                prefixed.put(member, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * @return : first member of the path
+     */
+    public String getHead()
+    {
+        return head;
+    }
+
+    /**
+     * @return : path under the first member, or null if the path has a single member
+     */
+    public PropagationId getTail()
+    {
+        return tail;
+    }
+
+    /**
+     * @return : true if the given id is a parent path of this one
+     */
+    public boolean isUnder(PropagationId parent)
+    {
+        PropagationId id = this;
+        while (parent != null)
+        {
+            if (id == null || !id.head.equals(parent.head))
+                return false;
+            id = id.tail;
+            parent = parent.tail;
+        }
+        return id != null;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (o == this)
+            return true;
+        if (!(o instanceof PropagationId) || ((PropagationId)o).hash != hash)
+            return false;
+
+        PropagationId id = this;
+        PropagationId other = (PropagationId)o;
+        while (id != null && other != null)
+        {
+            if (id == other)
+                return true;
+            if (!id.head.equals(other.head))
+                return false;
+            id = id.tail;
+            other = other.tail;
+        }
+        return id == other;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public String toString()
+    {
+        String result = path;
+        if (result == null)
+        {
+            StringBuilder builder = new StringBuilder(head);
+            for(PropagationId id = tail; id != null; id = id.tail)
+                builder.append('.').append(id.head);
+            path = result = builder.toString();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,253 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.implementations;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+
+import traction.mvc.interfaces.IValueConverter;
+
+/**
+ * Registry of converters from text to the types properties can have. Primitives, their wrappers, strings and enums
+ * have converters built in; other types use their static 'valueOf(String)' if they have one, or get the text as is.
+ * Converters can be registered for any type, replacing the built in ones.
+ * @author Tim Stratton
+ *
+ */
+public final class ValueConverters
+{
+    //converters by type, registered or resolved so far
+    private static final ConcurrentHashMap<Class<?>, IValueConverter> converters = new ConcurrentHashMap<Class<?>, IValueConverter>();
+
+    private static final IValueConverter textConverter = new IValueConverter()
+    {
+        @Override
+        public Object fromString(String text)
+        {
+            return text;
+        }
+    };
+
+    private static final IValueConverter nullConverter = new IValueConverter()
+    {
+        @Override
+        public Object fromString(String text)
+        {
+            return null;
+        }
+    };
+
+    static
+    {
+        registerBoth(int.class, Integer.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                try
+                {
+                    return Integer.valueOf(text);
+                }
+                catch (NumberFormatException ex)
+                {
+                    return null;
+                }
+            }
+        });
+        registerBoth(long.class, Long.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                try
+                {
+                    return Long.valueOf(text);
+                }
+                catch (NumberFormatException ex)
+                {
+                    return null;
+                }
+            }
+        });
+        registerBoth(short.class, Short.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                try
+                {
+                    return Short.valueOf(text);
+                }
+                catch (NumberFormatException ex)
+                {
+                    return null;
+                }
+            }
+        });
+        registerBoth(byte.class, Byte.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                try
+                {
+                    return Byte.valueOf(text);
+                }
+                catch (NumberFormatException ex)
+                {
+                    return null;
+                }
+            }
+        });
+        registerBoth(float.class, Float.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                try
+                {
+                    return Float.valueOf(text);
+                }
+                catch (NumberFormatException ex)
+                {
+                    return null;
+                }
+            }
+        });
+        registerBoth(double.class, Double.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                try
+                {
+                    return Double.valueOf(text);
+                }
+                catch (NumberFormatException ex)
+                {
+                    return null;
+                }
+            }
+        });
+        registerBoth(boolean.class, Boolean.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                return Boolean.valueOf(text);
+            }
+        });
+        registerBoth(char.class, Character.class, new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                return text.length() == 1 ? Character.valueOf(text.charAt(0)) : null;
+            }
+        });
+        converters.put(String.class, textConverter);
+        converters.put(CharSequence.class, textConverter);
+        converters.put(Object.class, textConverter);
+    }
+
+    private ValueConverters(){}
+
+    private static void registerBoth(Class<?> primitiveType, Class<?> boxedType, IValueConverter converter)
+    {
+        converters.put(primitiveType, converter);
+        converters.put(boxedType, converter);
+    }
+
+    /**
+     * Registers a converter for a type, used by all bindings converting text to it from then on
+     * @param type : type of the properties the converter is for
+     * @param converter
+     */
+    public static void register(Class<?> type, IValueConverter converter)
+    {
+        converters.put(type, converter);
+    }
+
+    /**
+     * Gets the converter for a type, working it out the first time the type is asked for
+     * @param type : type of the property text is converted for
+     * @return : the converter
+     */
+    public static IValueConverter forType(Class<?> type)
+    {
+        IValueConverter converter = converters.get(type);
+        if (converter == null)
+        {
+            converter = resolve(type);
+            IValueConverter existing = converters.putIfAbsent(type, converter);
+            if (existing != null)
+                converter = existing;
+        }
+        return converter;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static IValueConverter resolve(final Class<?> type)
+    {
+        if (type.isArray())
+            return nullConverter;
+
+        if (type.isEnum())
+        {
+            return new IValueConverter()
+            {
+                @Override
+                public Object fromString(String text)
+                {
+                    try
+                    {
+                        return Enum.valueOf((Class<Enum>)type, text);
+                    }
+                    catch (IllegalArgumentException ex)
+                    {
+                        return null;
+                    }
+                }
+            };
+        }
+
+        final Method valueOf;
+        try
+        {
+            valueOf = type.getMethod("valueOf", String.class);
+        }
+        catch (NoSuchMethodException ex)
+        {
+            return textConverter;
+        }
+
+        return new IValueConverter()
+        {
+            @Override
+            public Object fromString(String text)
+            {
+                try
+                {
+                    return valueOf.invoke(null, text);
+                }
+                catch (Exception ex)
+                {
+                    return null;
+                }
+            }
+        };
+    }
+}
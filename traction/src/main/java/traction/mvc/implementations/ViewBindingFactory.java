@@ -20,6 +20,7 @@ import android.view.View;
 
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import traction.mvc.R;
 import traction.mvc.implementations.ui.viewbinding.GenericViewBinding;
@@ -30,38 +31,92 @@ import traction.mvc.util.Log;
 
 public class ViewBindingFactory
 {
+    //default lookup table, built once instead of by every factory
+    private static Map<Class<?>, String> defaultBindingConfig;
+
+    //view-binding classes by name, so each is only loaded once
+    private static final ConcurrentHashMap<String, Class<?>> bindingClasses = new ConcurrentHashMap<String, Class<?>>();
+
     //lookup table to map view types to view-binding types
     private Map<Class<?>, String> bindingConfig = new Hashtable<Class<?>, String>();
 
+    //view-binding type found for each view type so far
+    private Map<Class<?>, String> resolvedBindingTypes = new Hashtable<Class<?>, String>();
 
     //cache of keys for the bindingConfig map
     private Class<?>[] bindingKeys;
 
     public ViewBindingFactory()
     {
+        bindingConfig.putAll(getDefaultBindingConfig());
+    }
+
+    private static synchronized Map<Class<?>, String> getDefaultBindingConfig()
+    {
+        if (defaultBindingConfig != null)
+            return defaultBindingConfig;
+
+        defaultBindingConfig = new Hashtable<Class<?>, String>();
         try
         {
             //should move this out and allow user the option to register new ones if they so please...
             String packageName = GenericViewBinding.class.getPackage().getName();
-            addBindingConfig("android.view.View", packageName+".GenericViewBinding");
-            addBindingConfig("android.widget.AbsListView", packageName+".ListViewBinding");
-            addBindingConfig("android.widget.Spinner", packageName+".SpinnerViewBinding");
-            addBindingConfig("android.widget.TextView", packageName+".TextViewBinding");
-            addBindingConfig("android.widget.NumberPicker", packageName+".NumberPickerBinding");
-            addBindingConfig("android.widget.TimePicker", packageName+".TimePickerBinding");
-            addBindingConfig("android.widget.ProgressBar", packageName+".ProgressBarBinding");
-            addBindingConfig("android.widget.SeekBar", packageName+".SeekBarBinding");
-            addBindingConfig("android.widget.ImageView", packageName+".ImageViewBinding");
-            addBindingConfig("android.widget.ImageButton", packageName+".ImageButtonBinding");
-            addBindingConfig("android.widget.CompoundButton", packageName+".CompoundButtonBinding");
-            addBindingConfig("android.widget.Button", packageName+".ButtonBinding");
-            addBindingConfig("android.widget.CalendarView", packageName+".CalendarViewBinding");
-            addBindingConfig("android.widget.DatePicker", packageName + ".DatePickerBinding");
+            addDefault("android.view.View", packageName+".GenericViewBinding");
+            addDefault("android.widget.AbsListView", packageName+".ListViewBinding");
+            addDefault("android.widget.Spinner", packageName+".SpinnerViewBinding");
+            addDefault("android.widget.TextView", packageName+".TextViewBinding");
+            addDefault("android.widget.NumberPicker", packageName+".NumberPickerBinding");
+            addDefault("android.widget.TimePicker", packageName+".TimePickerBinding");
+            addDefault("android.widget.ProgressBar", packageName+".ProgressBarBinding");
+            addDefault("android.widget.SeekBar", packageName+".SeekBarBinding");
+            addDefault("android.widget.ImageView", packageName+".ImageViewBinding");
+            addDefault("android.widget.ImageButton", packageName+".ImageButtonBinding");
+            addDefault("android.widget.CompoundButton", packageName+".CompoundButtonBinding");
+            addDefault("android.widget.Button", packageName+".ButtonBinding");
+            addDefault("android.widget.CalendarView", packageName+".CalendarViewBinding");
+            addDefault("android.widget.DatePicker", packageName + ".DatePickerBinding");
         }
         catch(ClassNotFoundException ex)
         {
             Log.e("error creating view binding config", ex);
         }
+        return defaultBindingConfig;
+    }
+
+    private static void addDefault(String viewClass, String viewBindingClass)
+    throws ClassNotFoundException
+    {
+        defaultBindingConfig.put(Class.forName(viewClass), viewBindingClass);
+    }
+
+    /**
+     * Loads the default view-binding classes, so the first inflation doesn't have to
+     */
+    public static void prewarm()
+    {
+        for(String viewBindingClass : getDefaultBindingConfig().values())
+        {
+            getBindingClass(viewBindingClass);
+        }
+    }
+
+    private static Class<?> getBindingClass(String viewBindingClass)
+    {
+        Class<?> theClass = bindingClasses.get(viewBindingClass);
+        if (theClass == null)
+        {
+            try
+            {
+                //theClass = IViewBinding.class.getClassLoader().loadClass(viewBindingTypeAsString);
+                theClass = Class.forName(viewBindingClass);
+            }
+            catch (ClassNotFoundException e)
+            {
+                return null;
+            }
+            bindingClasses.put(viewBindingClass, theClass);
+        }
+        return theClass;
     }
 
     public void addBindingConfig(String viewClass, String viewBindingClass)
@@ -69,6 +124,7 @@ public class ViewBindingFactory
     {
         bindingConfig.put(Class.forName(viewClass), viewBindingClass);
         bindingKeys = null;
+        resolvedBindingTypes.clear();
     }
 
     /**
@@ -86,6 +142,35 @@ public class ViewBindingFactory
         return (viewBinding == null || viewBinding.getProxyViewBinding() == null) ? null : viewBinding.getProxyViewBinding();
     }
 
+    /**
+     * Finds the view-binding type configured for the most derived class the view is an instance of
+     * @param view
+     * @return : the view-binding type, or null if none fits
+     */
+    private String findBindingType(View view)
+    {
+        Class<?> currentClass = null;
+        //iterate through all keys...
+
+        Class<?>[] keys = bindingKeys;
+        if (keys == null)
+            bindingKeys = keys = bindingConfig.keySet().toArray(new Class<?>[bindingConfig.size()]);
+
+        for(int i=0;i<keys.length;i++)
+        {
+            //..if the view is not an instance of the key, just skip it...
+            if (!keys[i].isInstance(view))
+                continue;
+
+            //.. if it is, either set it or determine if it is a more derived then the currently
+            //selected class
+            if (currentClass == null || currentClass.isAssignableFrom(keys[i]))
+                currentClass = keys[i];
+        }
+        //get the class name if one was found.
+        return currentClass == null ? null : bindingConfig.get(currentClass);
+    }
+
     /**
      * Perform lookup to find which IViewBinding is needed for this view
      * @param view : view to check against
@@ -97,42 +182,19 @@ public class ViewBindingFactory
         //if no override is given...
         if (viewBindingTypeAsString == null)
         {
-            Class<?> currentClass = null;
-            //iterate through all keys...
-
-            if (bindingKeys == null)
-                bindingKeys = bindingConfig.keySet().toArray(new Class<?>[bindingConfig.size()]);
-
-            for(int i=0;i<bindingKeys.length;i++)
+            viewBindingTypeAsString = resolvedBindingTypes.get(view.getClass());
+            if (viewBindingTypeAsString == null)
             {
-                //..if the view is not an instance of the key, just skip it...
-                if (!bindingKeys[i].isInstance(view))
-                    continue;
-
-                //.. if it is, either set it or determine if it is a more derived then the currently
-                //selected class
-                if (currentClass == null || currentClass.isAssignableFrom(bindingKeys[i]))
-                    currentClass = bindingKeys[i];
+                viewBindingTypeAsString = findBindingType(view);
+                if (viewBindingTypeAsString != null)
+                    resolvedBindingTypes.put(view.getClass(), viewBindingTypeAsString);
             }
-            //get the class name if one was found.
-            if (currentClass != null)
-                viewBindingTypeAsString = bindingConfig.get(currentClass);
         }
 
-        Class<?> theClass = null;
-        try
-        {
-            //try and get the class
-            if (viewBindingTypeAsString != null)
-            {
-                //theClass = IViewBinding.class.getClassLoader().loadClass(viewBindingTypeAsString);
-                theClass = Class.forName(viewBindingTypeAsString);
-            }
-        }
-        catch (ClassNotFoundException e)
-        {
+        //try and get the class
+        Class<?> theClass = viewBindingTypeAsString == null ? null : getBindingClass(viewBindingTypeAsString);
+        if (theClass == null)
             return null;
-        }
 
         IProxyViewBinding viewBinding = null;
         try
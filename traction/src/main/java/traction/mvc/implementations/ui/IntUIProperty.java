@@ -0,0 +1,166 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.implementations.ui;
+
+import traction.mvc.interfaces.IIntUIElement;
+import traction.mvc.interfaces.IProxyViewBinding;
+
+/**
+ * UIProperty of an int. Ints read from an IntProperty reach the IIntUpdateListener without being boxed, and ints sent
+ * back are written through setInt, so a binding like a dragged seek bar doesn't allocate per value.
+ * Without an IIntUpdateListener, it behaves like any UIProperty.
+ * @author Tim Stratton
+ *
+ */
+public class IntUIProperty
+extends UIProperty<Integer>
+implements IIntUIElement
+{
+    private IIntUIElement.IIntUpdateListener intUpdateListener;
+
+    //int a null is shown as, unless nulls are ignored
+    private final boolean ignoresNull;
+    private final int nullValue;
+
+    //last int dispatched to the listener, valid only if hasLastInt is true
+    private boolean hasLastInt;
+    private int lastInt;
+
+    //latest int posted to the ui thread. The handler keeps only the latest post of a target, so one field is enough.
+    //Set under the lock, so the latest post always carries the latest int
+    private volatile int postedInt;
+
+    private final UIHandler.IUpdateTarget intUpdate = new UIHandler.IUpdateTarget()
+    {
+        @Override
+        public void applyUpdate(Object value)
+        {
+            intUpdateListener.onUpdate(postedInt);
+        }
+    };
+
+    /**
+     * Creates an int property that ignores nulls
+     */
+    public IntUIProperty(IProxyViewBinding viewBinding, String pathAttribute)
+    {
+        super(viewBinding, pathAttribute);
+        this.ignoresNull = true;
+        this.nullValue = 0;
+    }
+
+    /**
+     * Creates an int property that shows nulls as the given value
+     */
+    public IntUIProperty(IProxyViewBinding viewBinding, String pathAttribute, int nullValue)
+    {
+        super(viewBinding, pathAttribute);
+        this.ignoresNull = false;
+        this.nullValue = nullValue;
+    }
+
+    public void setIntUpdateListener(IIntUIElement.IIntUpdateListener listener)
+    {
+        this.intUpdateListener = listener;
+    }
+
+    @Override
+    public void receiveUpdate(Object value)
+    {
+        if (intUpdateListener == null)
+            super.receiveUpdate(value);
+        else if (value instanceof Number)
+            receiveIntUpdate(((Number)value).intValue());
+        else if (value == null && !ignoresNull)
+            receiveIntUpdate(nullValue);
+    }
+
+    @Override
+    public void receiveIntUpdate(int value)
+    {
+        if (intUpdateListener == null)
+        {
+            super.receiveUpdate(value);
+            return;
+        }
+
+        UIHandler handler = getUIHandler();
+        synchronized(this)
+        {
+            if (isUpdating())
+                return;
+
+            if (hasLastInt && lastInt == value)
+                return;
+            hasLastInt = true;
+            lastInt = value;
+            if (handler != null)
+                postedInt = value;
+        }
+
+        //widget code runs outside the lock
+        if (handler == null)
+            intUpdateListener.onUpdate(value);
+        else
+            handler.postLatest(intUpdate, null);
+    }
+
+    @Override
+    public void sendUpdate(Integer value)
+    {
+        if (value != null)
+        {
+            sendIntUpdate(value);
+            return;
+        }
+
+        synchronized(this)
+        {
+            hasLastInt = false;
+        }
+        super.sendUpdate(null);
+    }
+
+    @Override
+    public void sendIntUpdate(int value)
+    {
+        if (path == null)
+        {
+            forgetShownValue();
+            return;
+        }
+
+        disableReceiveUpdates();
+        getBindingInventory().sendIntUpdate(path, value);
+        synchronized(this)
+        {
+            //the ui already shows what it sent
+            hasLastInt = true;
+            lastInt = value;
+        }
+        enableReceiveUpdates();
+    }
+
+    @Override
+    public void forgetShownValue()
+    {
+        synchronized(this)
+        {
+            hasLastInt = false;
+        }
+        super.forgetShownValue();
+    }
+}
@@ -15,6 +15,9 @@
 
 package traction.mvc.implementations.ui;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import android.os.Handler;
 
 /**
@@ -27,13 +30,80 @@ import android.os.Handler;
  */
 public class UIHandler extends Handler
 {
+	/**
+	 * Receives the latest value posted for it through postLatest
+	 */
+	public interface IUpdateTarget
+	{
+		void applyUpdate(Object value);
+	}
+
 	private Thread uiThread;
+
+	//latest value posted from other threads for each target, applied all at once by a single drain
+	private LinkedHashMap<IUpdateTarget, Object> pendingUpdates = new LinkedHashMap<IUpdateTarget, Object>();
+	private LinkedHashMap<IUpdateTarget, Object> drainingUpdates = new LinkedHashMap<IUpdateTarget, Object>();
+	private boolean drainPosted;
+	private final Object pendingLock = new Object();
+
+	private final Runnable drain = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			LinkedHashMap<IUpdateTarget, Object> updates;
+			synchronized (pendingLock)
+			{
+				//swap the tables, so targets can keep posting while these are applied
+				updates = pendingUpdates;
+				pendingUpdates = drainingUpdates;
+				drainingUpdates = updates;
+				drainPosted = false;
+			}
+
+			for(Map.Entry<IUpdateTarget, Object> update : updates.entrySet())
+			{
+				update.getKey().applyUpdate(update.getValue());
+			}
+			updates.clear();
+		}
+	};
+
 	public UIHandler()
 	{
 		//save an instance of the current thread, where it was created.
 		uiThread = Thread.currentThread();
 	}
 
+	/**
+	 * Applies an update on the ui thread. If called from another thread, only the latest value posted for the target
+	 * is kept until the ui thread gets to it, and all pending targets are applied by one posted runnable.
+	 * @param target : receives the value
+	 * @param value : value to apply
+	 */
+	public void postLatest(IUpdateTarget target, Object value)
+	{
+		if (Thread.currentThread() == uiThread)
+		{
+			//anything still pending for the target is older than this value
+			synchronized (pendingLock)
+			{
+				pendingUpdates.remove(target);
+			}
+			target.applyUpdate(value);
+			return;
+		}
+
+		synchronized (pendingLock)
+		{
+			pendingUpdates.put(target, value);
+			if (drainPosted)
+				return;
+			drainPosted = true;
+		}
+		post(drain);
+	}
+
 	public void tryPostImmediatelyToUIThread(Runnable action)
 	{
 		//if the current thread is same as the one where handler was, just run it, otherwise, post it.
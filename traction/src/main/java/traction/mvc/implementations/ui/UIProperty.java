@@ -17,10 +17,12 @@ package traction.mvc.implementations.ui;
 
 import org.json.JSONObject;
 
+import traction.mvc.implementations.ValueConverters;
 import traction.mvc.observables.BindingInventory;
 import traction.mvc.interfaces.IProxyViewBinding;
 import traction.mvc.interfaces.IViewBinding;
 import traction.mvc.interfaces.IUIElement;
+import traction.mvc.interfaces.IValueConverter;
 
 /**
  * Defines the UI end point for model/view-model data. Along with the IUIUpdateListener, the UIProperty can receive data updates
@@ -38,8 +40,32 @@ implements IUIElement<T>
     protected T tempValue;
 
 	private IUIElement.IUIUpdateListener<T> updateListener;		
+
+    //latest value posted to the ui thread. Set under the lock, so the latest post always carries the latest value
+    private volatile Object postedValue;
+
+    //hands posted values to the update listener, once on the UI thread
+    private final UIHandler.IUpdateTarget uiUpdate = new UIHandler.IUpdateTarget()
+    {
+        @Override
+        public void applyUpdate(Object value)
+        {
+            updateListener.onUpdate((T) postedValue);
+        }
+    };
 	
 	private boolean _isUpdating;
+
+    //last value dispatched to the update listener, or noValue if it is unknown or can't be compared
+    private final static Object noValue = new Object();
+    private Object lastValue = noValue;
+    private IUIElement.IValueComparator valueComparator;
+
+    //converts text sent back to the bound property. Unless one was set, it is resolved from the property's type on the
+    //first conversion and dropped when the model sends a new value, as the path may lead somewhere else
+    private IValueConverter valueConverter;
+    private boolean valueConverterSet;
+    private boolean convertsToPrimitive;
 	
 	protected String pathAttribute = null;
 	protected final IViewBinding parentViewBinding;
@@ -74,13 +100,119 @@ implements IUIElement<T>
 	public void sendUpdate(T value)
 	{	
 		if (path == null)
+		{
+			forgetShownValue();
 			return;
+		}
 		
 		disableReceiveUpdates();
         getBindingInventory().sendUpdate(path, value);
+        synchronized(this)
+        {
+            //the ui already shows what it sent
+            lastValue = isComparable(value) ? value : noValue;
+        }
 		enableReceiveUpdates();
 	}
 
+    /**
+     * Sets how values are compared with the last one dispatched. Without a comparator, only strings, primitive
+     * wrappers and enums are compared, by equals; any other value is always dispatched.
+     */
+    public void setValueComparator(IUIElement.IValueComparator comparator)
+    {
+        synchronized(this)
+        {
+            this.valueComparator = comparator;
+            lastValue = noValue;
+        }
+    }
+
+    /**
+     * Forgets the value last dispatched, so the next one reaches the widget even if it is the same. For when the
+     * widget may no longer show it, as when it is edited or bound again.
+     */
+    public void forgetShownValue()
+    {
+        synchronized(this)
+        {
+            lastValue = noValue;
+        }
+    }
+
+    /**
+     * Dispatches a value even if it equals the last one, for when something else the ui depends on changed
+     */
+    public void forceUpdate(Object value)
+    {
+        forgetShownValue();
+        receiveUpdate(value);
+    }
+
+    /**
+     * Sets how text sent through sendText is converted, instead of resolving it from the bound property's type
+     * @param converter : the converter, or null to resolve it again
+     */
+    public void setValueConverter(IValueConverter converter)
+    {
+        synchronized(this)
+        {
+            this.valueConverter = converter;
+            this.valueConverterSet = converter != null;
+            this.convertsToPrimitive = false;
+        }
+    }
+
+    /**
+     * Converts text from the ui to the bound property's type and sends it. Text that doesn't convert is sent as null,
+     * unless the property is a primitive, then nothing is sent.
+     * @param text
+     */
+    @SuppressWarnings("unchecked")
+    public void sendText(String text)
+    {
+        //the widget shows the text now, whether or not it gets sent
+        forgetShownValue();
+
+        IValueConverter converter;
+        boolean primitive;
+        synchronized(this)
+        {
+            if (valueConverter == null)
+            {
+                //the type can't be known if something down the path is null, or the path is invalid. Nothing can be
+                //set then anyway.
+                Class<?> type = getDereferencedPathType();
+                if (type == null)
+                    return;
+                valueConverter = ValueConverters.forType(type);
+                convertsToPrimitive = type.isPrimitive();
+            }
+            converter = valueConverter;
+            primitive = convertsToPrimitive;
+        }
+
+        Object value = converter.fromString(text);
+        if (value == null && primitive)
+            return;
+        sendUpdate((T)value);
+    }
+
+    private boolean isComparable(Object value)
+    {
+        return valueComparator != null || value == null || value instanceof String || value instanceof Number
+                || value instanceof Boolean || value instanceof Character || value instanceof Enum;
+    }
+
+    private boolean isUnchanged(Object value)
+    {
+        if (lastValue == noValue)
+            return false;
+        if (valueComparator != null)
+            return valueComparator.areEqual(lastValue, value);
+        return lastValue == null ? value == null : lastValue.equals(value);
+    }
+
     public T dereferenceValue()
     {
         return (T) getBindingInventory().dereferenceValue(path);
@@ -103,11 +235,12 @@ implements IUIElement<T>
 	}
 
     @Override
-    public void receiveUpdate(final Object value)
+    public void receiveUpdate(Object value)
     {
         if (updateListener == null)
             return;
 
+        UIHandler handler = getUIHandler();
         synchronized(this)
         {
             //is true is 'disableReceiveUpdates' has been called before 'enablRecieveUpdates'
@@ -115,24 +248,29 @@ implements IUIElement<T>
             if (isUpdating())
                 return;
 
+            //a value from the model, not the echo of an edit, may come from a new host; resolve the converter again
+            if (!valueConverterSet)
+                valueConverter = null;
+
+            //skip values the ui already shows, saving the post and the widget update
+            if (isUnchanged(value))
+                return;
+            lastValue = isComparable(value) ? value : noValue;
+            if (handler != null)
+                postedValue = value;
+        }
+
+        //widget code runs outside the lock
+        if (handler == null)
+        {
             //if no handler, then just run on current thread
-            if (getUIHandler() == null)
-            {
-                updateListener.onUpdate((T)value);
-            }
-            else
-            {
-                //call the update listener on the UI thread. Needs to be on the UI thread because it is most
-                //certainly updating something on the UI
-                getUIHandler().tryPostImmediatelyToUIThread(new Runnable()
-                {
-                    @Override
-                    public void run()
-                    {
-                        updateListener.onUpdate((T) value);
-                    }
-                });
-            }
+            updateListener.onUpdate((T)value);
+        }
+        else
+        {
+            //call the update listener on the UI thread. Needs to be on the UI thread because it is most
+            //certainly updating something on the UI. Only the latest value is kept until the UI thread gets to it
+            handler.postLatest(uiUpdate, null);
         }
     }
 
@@ -153,6 +291,7 @@ implements IUIElement<T>
                     path = null;
             }
         }
+        forgetShownValue();
         getBindingInventory().track(this, path);
 	}
 
@@ -194,6 +333,7 @@ implements IUIElement<T>
     {
         if (this.path == null)
             return;
+        forgetShownValue();
         differentBindingInventory.track(this, this.path);
     }
 
@@ -0,0 +1,96 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.implementations.ui.viewbinding;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Formattable;
+import java.util.Formatter;
+import java.util.Locale;
+
+/**
+ * A format string parsed once, for bindings that format every value they show. A format with a single '%s' or '%d'
+ * is applied by appending the value between the text around it; anything else goes through a Formatter kept for
+ * reuse. Not thread safe, each binding keeps its own.
+ * @author Tim Stratton
+ *
+ */
+class CompiledFormat
+{
+    private static final int GENERAL = 0;
+    private static final int STRING = 1;
+    private static final int DECIMAL = 2;
+
+    private final String format;
+    private final int kind;
+    private final String prefix;
+    private final String suffix;
+
+    //locale the fast path was checked against; '%d' is only appended directly if it uses ascii digits
+    private final Locale locale;
+    private final boolean asciiDigits;
+
+    private final StringBuilder buffer = new StringBuilder();
+    private Formatter formatter;
+
+    CompiledFormat(String format)
+    {
+        this.format = format;
+
+        int index = format.indexOf('%');
+        char conversion = index >= 0 && index + 1 < format.length() ? format.charAt(index + 1) : 0;
+        if (index >= 0 && format.indexOf('%', index + 1) < 0 && (conversion == 's' || conversion == 'd'))
+        {
+            kind = conversion == 's' ? STRING : DECIMAL;
+            prefix = format.substring(0, index);
+            suffix = format.substring(index + 2);
+        }
+        else
+        {
+            kind = GENERAL;
+            prefix = suffix = null;
+        }
+
+        locale = Locale.getDefault();
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        asciiDigits = symbols.getZeroDigit() == '0' && symbols.getMinusSign() == '-';
+    }
+
+    /**
+     * Formats a value, as String.format(format, value) would
+     * @param value
+     * @return : formatted text, in a buffer reused by the next call
+     */
+    StringBuilder apply(Object value)
+    {
+        buffer.setLength(0);
+        if (kind == STRING && !(value instanceof Formattable))
+        {
+            buffer.append(prefix).append(value).append(suffix);
+        }
+        else if (kind == DECIMAL && asciiDigits && locale.equals(Locale.getDefault())
+                && (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte))
+        {
+            buffer.append(prefix).append(((Number)value).longValue()).append(suffix);
+        }
+        else
+        {
+            if (formatter == null)
+                formatter = new Formatter(buffer);
+            formatter.format(Locale.getDefault(), format, value);
+        }
+        return buffer;
+    }
+}
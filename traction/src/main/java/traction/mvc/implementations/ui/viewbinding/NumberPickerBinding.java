@@ -15,8 +15,8 @@
 
 package traction.mvc.implementations.ui.viewbinding;
 
-import traction.mvc.implementations.ui.UIProperty;
-import traction.mvc.interfaces.IUIElement.IUIUpdateListener;
+import traction.mvc.implementations.ui.IntUIProperty;
+import traction.mvc.interfaces.IIntUIElement.IIntUpdateListener;
 
 import android.widget.NumberPicker;
 
@@ -35,9 +35,9 @@ extends GenericViewBinding<NumberPicker>
 implements NumberPicker.Formatter, NumberPicker.OnScrollListener, NumberPicker.OnValueChangeListener
 {		
 	//expose the min, max and current value
-	public final UIProperty<Integer> MinValue = new UIProperty<Integer>(this,"MinValue");
-	public final UIProperty<Integer> MaxValue = new UIProperty<Integer>(this, "MaxValue");
-	public final UIProperty<Integer> Value = new UIProperty<Integer>(this, "Value");
+	public final IntUIProperty MinValue = new IntUIProperty(this,"MinValue");
+	public final IntUIProperty MaxValue = new IntUIProperty(this, "MaxValue");
+	public final IntUIProperty Value = new IntUIProperty(this, "Value");
 
 	public NumberPickerBinding()
 	{
@@ -45,12 +45,12 @@ implements NumberPicker.Formatter, NumberPicker.OnScrollListener, NumberPicker.O
 		//assume certain values have been populated or not, so additional checks are required to ensure 
 		//the values get in at the right time
 		//Value is dependent on Max and Min, but max and min are independent of each other and neither are dependent on the value.
-		MinValue.setUIUpdateListener(new IUIUpdateListener<Integer>()
+		MinValue.setIntUpdateListener(new IIntUpdateListener()
 		{
 			@Override
-			public void onUpdate(Integer value)
+			public void onUpdate(int value)
 			{
-				if (getWidget() == null || value == null)
+				if (getWidget() == null)
 					return;
 
 
@@ -71,12 +71,12 @@ implements NumberPicker.Formatter, NumberPicker.OnScrollListener, NumberPicker.O
 			}
 		});
 
-		MaxValue.setUIUpdateListener(new IUIUpdateListener<Integer>()
+		MaxValue.setIntUpdateListener(new IIntUpdateListener()
 		{
 			@Override
-			public void onUpdate(Integer value)
+			public void onUpdate(int value)
 			{
-				if (getWidget() == null || value == null)
+				if (getWidget() == null)
 					return;
 
 				getWidget().setMaxValue(value);
@@ -97,12 +97,12 @@ implements NumberPicker.Formatter, NumberPicker.OnScrollListener, NumberPicker.O
 			}
 		});
 
-		Value.setUIUpdateListener(new IUIUpdateListener<Integer>()
+		Value.setIntUpdateListener(new IIntUpdateListener()
 		{
 			@Override
-			public void onUpdate(Integer value)
+			public void onUpdate(int value)
 			{
-				if (getWidget() == null || value == null)
+				if (getWidget() == null)
 					return;
 
                 synchronized(NumberPickerBinding.this)
@@ -134,7 +134,7 @@ implements NumberPicker.Formatter, NumberPicker.OnScrollListener, NumberPicker.O
 	{				
 		if (oldVal == newVal)
 			return;
-        Value.sendUpdate(newVal);
+        Value.sendIntUpdate(newVal);
 	}
 	@Override
 	public void onScrollStateChange(NumberPicker view, int scrollState)
@@ -15,7 +15,9 @@
 
 package traction.mvc.implementations.ui.viewbinding;
 
+import traction.mvc.implementations.ui.IntUIProperty;
 import traction.mvc.implementations.ui.UIProperty;
+import traction.mvc.interfaces.IIntUIElement.IIntUpdateListener;
 import traction.mvc.interfaces.IUIElement.IUIUpdateListener;
 
 import android.widget.ProgressBar;
@@ -33,36 +35,30 @@ import android.widget.ProgressBar;
 public class ProgressBarBinding 
 extends GenericViewBinding<ProgressBar>
 {
-	public final UIProperty<Integer> MaxValue = new UIProperty<Integer>(this, "MaxValue");
-	public final UIProperty<Integer> Value = new UIProperty<Integer>(this, "Value");
+	public final IntUIProperty MaxValue = new IntUIProperty(this, "MaxValue", 100);//null value will set the max to 100 by default
+	public final IntUIProperty Value = new IntUIProperty(this, "Value", 0);//null will default to 0
 	public final UIProperty<Boolean> IsIndeterminate = new UIProperty<Boolean>(this, "IsIndeterminate");
 		
 	public ProgressBarBinding()
 	{
-		MaxValue.setUIUpdateListener(new IUIUpdateListener<Integer>()
+		MaxValue.setIntUpdateListener(new IIntUpdateListener()
 		{
 			@Override
-			public void onUpdate(Integer value)
+			public void onUpdate(int value)
 			{
 				if (getWidget() == null)
 					return;
-				if (value == null)
-					getWidget().setMax(100);//null value will set the progress to 100 by default
-				else
-					getWidget().setMax(value);
+				getWidget().setMax(value);
 			}
 		});
 		
-		Value.setUIUpdateListener(new IUIUpdateListener<Integer>()
+		Value.setIntUpdateListener(new IIntUpdateListener()
 		{			
 			@Override
-			public void onUpdate(Integer value)
+			public void onUpdate(int value)
 			{
 				if (getWidget() == null)
-				return;
-			if (value == null)
-				getWidget().setProgress(0);//null will default to 0
-			else
+					return;
 				getWidget().setProgress(value);
 			}
 		});
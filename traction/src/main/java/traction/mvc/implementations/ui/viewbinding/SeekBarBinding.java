@@ -54,7 +54,7 @@ implements OnSeekBarChangeListener
 		if (!fromUser)
 			return;
 		
-		Value.sendUpdate(progress);								
+		Value.sendIntUpdate(progress);								
 	}
 
 	@Override
@@ -15,9 +15,6 @@
 
 package traction.mvc.implementations.ui.viewbinding;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-
 import traction.mvc.implementations.ui.UIProperty;
 import traction.mvc.interfaces.IUIElement.IUIUpdateListener;
 import traction.mvc.interfaces.IViewBinding;
@@ -45,6 +42,15 @@ implements IViewBinding, TextWatcher
 	
 	private boolean initFormatSet = false;
 
+	//format compiled from the Format value it was last resolved from, a resource id or a string
+	private Object compiledFormatSource;
+	private CompiledFormat compiledFormat;
+
+	//characters of the last number or formatted value shown. TextView only reads them until the next setText, so
+	//they are overwritten by the next one instead of allocating a string per update
+	private char[] textBuffer = new char[16];
+	private final StringBuilder numberText = new StringBuilder();
+
 	public TextViewBinding()
 	{
 		//since we can't be sure of the order the elements will update, we must do additional checks to ensure
@@ -62,8 +68,8 @@ implements IViewBinding, TextWatcher
                     Format.setTempValue(value);
 					Object obj = Text.dereferenceValue();
 					
-					//force an update on the Text element
-					Text.receiveUpdate(obj);
+					//force an update on the Text element, its value may be the same but it displays differently now
+					Text.forceUpdate(obj);
 				}
 			}
 		});
@@ -95,29 +101,22 @@ implements IViewBinding, TextWatcher
 					}
 					
 					//if still no format, then just use the value as is.
-					if (Format.getTempValue() == null)
-						getWidget().setText(value.toString());
-					else
-					//..otherwise
+					CompiledFormat format = getCompiledFormat(Format.getTempValue());
+					if (format != null)
+						//..otherwise apply the format
+						setBufferedText(format.apply(value));
+					//text, spans included, goes through untouched
+					else if (value instanceof CharSequence)
+						getWidget().setText((CharSequence)value);
+					//whole numbers are written out without making a string
+					else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
 					{
-						//if format is a resource..
-						if (Format.getTempValue() instanceof Integer || Format.getTempValue().getClass().equals(int.class))
-						{
-							//..get as a string...
-							String format = getWidget().getContext().getResources().getString((Integer)Format.getTempValue());
-							if (format == null)
-								getWidget().setText(value.toString());
-							else
-								//and apply the format
-								getWidget().setText(String.format(format, value));
-						}
-						//.. but if it's a string
-						else if (Format.getTempValue() instanceof String)
-						{
-							//apply format
-							getWidget().setText(String.format(Format.getTempValue().toString(), value));
-						}
+						numberText.setLength(0);
+						setBufferedText(numberText.append(((Number)value).longValue()));
 					}
+					else
+						getWidget().setText(value.toString());
+
 					//restore editview listener now
 					if (getEditTextView()!=null)
 						getEditTextView().addTextChangedListener(TextViewBinding.this);
@@ -126,6 +125,40 @@ implements IViewBinding, TextWatcher
 		});		
 	}
 
+	private void setBufferedText(StringBuilder text)
+	{
+		int length = text.length();
+		if (textBuffer.length < length)
+			textBuffer = new char[Math.max(length, textBuffer.length * 2)];
+		text.getChars(0, length, textBuffer, 0);
+		getWidget().setText(textBuffer, 0, length);
+	}
+
+	/**
+	 * Gets the compiled format, resolving a resource and compiling the format only when the Format value changes
+	 * @param formatValue : a string resource id or a format string
+	 * @return : the compiled format, or null if there is no format
+	 */
+	private CompiledFormat getCompiledFormat(Object formatValue)
+	{
+		if (formatValue == null)
+			return null;
+		if (formatValue.equals(compiledFormatSource))
+			return compiledFormat;
+
+		String format = null;
+		//if format is a resource, get as a string...
+		if (formatValue instanceof Integer)
+			format = getWidget().getContext().getResources().getString((Integer)formatValue);
+		//.. but if it's a string, take it as is
+		else if (formatValue instanceof String)
+			format = (String)formatValue;
+
+		compiledFormatSource = formatValue;
+		compiledFormat = format == null ? null : new CompiledFormat(format);
+		return compiledFormat;
+	}
+
 	/**
 	 * type safe cast to edit view
 	 * @return
@@ -137,7 +170,6 @@ implements IViewBinding, TextWatcher
 		return null;
 	}
 	
-	/*needs rework!*/
 	@Override
 	public void afterTextChanged(Editable text)
 	{
@@ -148,65 +180,8 @@ implements IViewBinding, TextWatcher
 		if (text == null)
 			return;
 
-		//get the type of property
-		Class<?> fieldType = Text.getDereferencedPathType();
-		
-		//field type can be null if:
-		//1) there is a null object down the path that's not the last chain, which would be impossible to set a value anyways, so we can exit
-		//2) invalid path, also can't update anyways
-		if (fieldType == null)
-			return;
-		Object returnObj = null;
-		Class<?> t = fieldType;
-		
-		//get the object version of a primitive
-		if (fieldType.equals(int.class))
-			fieldType = Integer.class;
-		else if (fieldType.equals(boolean.class))
-			fieldType = Boolean.class;
-		else if (fieldType.equals(float.class))
-			fieldType = Float.class;
-		else if (fieldType.equals(double.class))
-			fieldType = Double.class;
-		else if (fieldType.equals(long.class))
-			fieldType = Long.class;
-		else if (fieldType.equals(short.class))
-			fieldType = Short.class;
-		else if (fieldType.equals(byte.class))
-			fieldType = Byte.class;
-		else if (fieldType.equals(char.class))
-			fieldType = Character.class;
-			
-		try
-		{
-			//this handles converting from a string to a primitive since Object versions
-			//of the primitive have a static 'valueOf' that accepts a string.
-			//if your object doesn't have on, you can create one.
-			//Another method will need to be create for other custom classes that's more
-			//visible
-			
-			if (!fieldType.isArray())
-			{
-				Method m = fieldType.getMethod("valueOf", String.class);			
-				returnObj = m.invoke(null, text.toString());
-			}
-		}
-		catch (NoSuchMethodException e)
-		{
-			returnObj = text.toString();
-		}
-		catch (IllegalArgumentException e)
-		{
-		}
-		catch (IllegalAccessException e)
-		{
-		}
-		catch (InvocationTargetException e)
-		{
-		}
-		if (t.isPrimitive() && returnObj == null)
-			return;
-		Text.sendUpdate(returnObj);
+		//converts to the type of the property, with the converter resolved on the first edit
+		Text.sendText(text.toString());
 	}
 
 	@Override
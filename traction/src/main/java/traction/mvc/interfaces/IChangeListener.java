@@ -0,0 +1,34 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.interfaces;
+
+import traction.mvc.implementations.ChangeEvent;
+
+/**
+ * A listener that can take the values of a change along with its path. Signals that don't know the values, like
+ * ones with no path, still come through onEvent.
+ * @author Tim Stratton
+ *
+ */
+public interface IChangeListener
+extends IObjectListener
+{
+    /**
+     * Fired when a property, or something under it, changed
+     * @param event : path and values of the change; only valid until this returns
+     */
+    void onChange(ChangeEvent event);
+}
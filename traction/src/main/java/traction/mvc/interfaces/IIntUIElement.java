@@ -0,0 +1,46 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.interfaces;
+
+/**
+ * A ui element bound to an int. Binding inventories hand it ints read from an IntProperty directly, without boxing them.
+ * @author Tim Stratton
+ *
+ */
+public interface IIntUIElement
+    extends IUIElement<Integer>
+{
+	/**
+	 * Sends an int to the ui element. Expects the IIntUpdateListener to be called
+	 * @param value
+	 */
+	public void receiveIntUpdate(int value);
+
+	/**
+	 * Sends an int from the ui back to the model/view-model
+	 * @param value
+	 */
+	public void sendIntUpdate(int value);
+
+	/**
+	 * listener to handle int updates to the ui element
+	 * @author Tim Stratton
+	 */
+	public interface IIntUpdateListener
+	{
+		public void onUpdate(int value);
+	}
+}
@@ -15,6 +15,8 @@
 
 package traction.mvc.interfaces;
 
+import traction.mvc.implementations.PropagationId;
+
 /**
  * Defined a handler for IObservableObject object to signal
  * @author Tim Stratton
@@ -24,19 +26,50 @@ public interface IObjectListener
 {
     public static class Utility
     {
-        public static String generatePropagationId(String currentPropagationId, String currentSource)
+        public static PropagationId generatePropagationId(PropagationId currentPropagationId, String currentSource)
         {
-            if (currentSource == null || currentSource.equals(""))
-                return currentPropagationId;
-            else if (currentPropagationId == null || currentPropagationId.equals(""))
-                return currentSource;
+            if (currentPropagationId == null)
+                return PropagationId.of(currentSource);
             else
-                return currentSource + "." + currentPropagationId;
+                return currentPropagationId.prefix(currentSource);
+        }
+
+        /**
+         * @deprecated : ids are PropagationIds now; use the PropagationId overload
+         */
+        @Deprecated
+        public static String generatePropagationId(String currentPropagationId, String currentSource)
+        {
+            PropagationId id = generatePropagationId(PropagationId.of(currentPropagationId), currentSource);
+            return id == null ? null : id.toString();
         }
     }
 
+    /**
+     * For listeners written against onEvent(String): extend this instead of implementing IObjectListener, and
+     * they're signalled with the dotted path as before
+     * @deprecated : implement onEvent(PropagationId), which doesn't build a string for every signal
+     */
+    @Deprecated
+    public static abstract class StringAdapter
+        implements IObjectListener
+    {
+        @Override
+        public final void onEvent(PropagationId propagationId)
+        {
+            onEvent(propagationId == null ? null : propagationId.toString());
+        }
+
+        /**
+         * Fired when listener is signalled of something, anything really.
+         * @param propagationId : dotted path of what changed, or null if anything could have changed
+         */
+        public abstract void onEvent(String propagationId);
+    }
+
 	/**
 	 * Fired when listener is signalled of something, anything really.
+	 * @param propagationId : path of what changed, or null if anything could have changed
 	 */
-    void onEvent(String propagationId);
+    void onEvent(PropagationId propagationId);
 }
@@ -45,7 +45,7 @@ extends IObjectListener, IProxyObservableObject,IPOJO
 	 * listeners.
 	 * @param propertyName
 	 * @param oldPropertyValue
-	 * @param newPropertyValue
+	 * @param newPropertyValue : value the property reads as now; it is sent to bound elements without reading it back
 	 */
 	void notifyListener(String propertyName, Object oldPropertyValue, Object newPropertyValue);
 
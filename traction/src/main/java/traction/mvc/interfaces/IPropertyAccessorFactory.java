@@ -0,0 +1,33 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.interfaces;
+
+import android.util.Property;
+
+/**
+ * Creates accessors for the properties of one class that read and write them directly, without reflection.
+ * Registered with PropertyStore.registerAccessorFactory; properties it doesn't know fall back to reflection.
+ * @author Tim Stratton
+ *
+ */
+public interface IPropertyAccessorFactory
+{
+    /**
+     * @param name : name of the property
+     * @return : accessor for the property, or null if this factory doesn't provide one
+     */
+    Property<?,?> createAccessor(String name);
+}
@@ -66,6 +66,15 @@ public interface IUIElement<T>
 		public void onUpdate(S value);
 	}
 
+	/**
+	 * compares a value sent to a ui element with the last one it received, so unchanged values are not dispatched
+	 * @author Tim Stratton
+	 */
+	public interface IValueComparator
+	{
+		public boolean areEqual(Object lastValue, Object newValue);
+	}
+
     public boolean isDefined();
 
     public void track(BindingInventory differentBindingInventory);
@@ -0,0 +1,30 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.interfaces;
+
+/**
+ * Converts text from the ui, like what is typed in an edit text, to the type of the property it is bound to
+ * @author Tim Stratton
+ *
+ */
+public interface IValueConverter
+{
+	/**
+	 * @param text : text from the ui
+	 * @return : converted value, or null if the text doesn't convert
+	 */
+	public Object fromString(String text);
+}
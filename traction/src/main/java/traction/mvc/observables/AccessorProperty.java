@@ -0,0 +1,118 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.observables;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import android.util.Property;
+
+/**
+ * Reflective property built from the getter, setter or field PropertyStore already found, so nothing is looked up
+ * again. Members are made accessible once, skipping the access checks on every call.
+ * @author Tim Stratton
+ *
+ */
+class AccessorProperty
+    extends Property<Object, Object>
+{
+    private final Method getter;
+    private final Method setter;
+    private final Field field;
+
+    //conversion of numbers written to the setter or field
+    private final int coercion;
+
+    @SuppressWarnings("unchecked")
+    AccessorProperty(Class<?> valueType, String name, Method getter, Method setter, Field field)
+    {
+        super((Class<Object>)valueType, name);
+        this.getter = makeAccessible(getter);
+        this.setter = makeAccessible(setter);
+        //final fields stay as they are, so setting them still fails
+        this.field = field != null && Modifier.isFinal(field.getModifiers()) ? field : makeAccessible(field);
+        this.coercion = setter != null ? Coercion.forType(setter.getParameterTypes()[0])
+                : field != null ? Coercion.forType(field.getType()) : Coercion.NONE;
+    }
+
+    static <M extends AccessibleObject> M makeAccessible(M member)
+    {
+        if (member != null)
+        {
+            try
+            {
+                member.setAccessible(true);
+            }
+            catch (SecurityException ex)
+            {
+                //still usable, only slower
+            }
+        }
+        return member;
+    }
+
+    @Override
+    public Object get(Object object)
+    {
+        try
+        {
+            if (getter != null)
+                return getter.invoke(object);
+            if (field != null)
+                return field.get(object);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new AssertionError();
+        }
+        catch (InvocationTargetException e)
+        {
+            throw new RuntimeException(e.getCause());
+        }
+        throw new AssertionError();
+    }
+
+    @Override
+    public void set(Object object, Object value)
+    {
+        try
+        {
+            if (setter != null)
+                setter.invoke(object, Coercion.coerce(coercion, value));
+            else if (field != null)
+                field.set(object, Coercion.coerce(coercion, value));
+            else
+                throw new UnsupportedOperationException("Property " + getName() + " is read-only");
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new AssertionError();
+        }
+        catch (InvocationTargetException e)
+        {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Override
+    public boolean isReadOnly()
+    {
+        return setter == null && field == null;
+    }
+}
@@ -17,19 +17,19 @@ package traction.mvc.observables;
 
 import java.security.InvalidParameterException;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.NavigableMap;
-import java.util.Set;
-import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import android.util.Property;
 
+import traction.mvc.implementations.ChangeEvent;
 import traction.mvc.implementations.CommandArgument;
 import traction.mvc.implementations.PathBinding;
+import traction.mvc.implementations.PropagationId;
+import traction.mvc.interfaces.IIntUIElement;
 import traction.mvc.interfaces.IPropertyStore;
 import traction.mvc.interfaces.IObservableCommand;
-import traction.mvc.interfaces.IPOJO;
 import traction.mvc.interfaces.IUIElement;
 
 /**
@@ -41,16 +41,6 @@ import traction.mvc.interfaces.IUIElement;
 public class BindingInventory
     extends ObservableObject
 {
-	/**
-	 * patterns for parsing property chains
-	 */
-	private final static Pattern pathPattern = Pattern.compile("(\\\\|[\\.]*)(.+)");
-	private final static Pattern split = Pattern.compile("\\.");
-
-	//used for determining a range of paths to get from the inventory. Useful for getting all properties down a 
-	//specific branch
-	private final static String pathTerminator = "{";
-	
 	//current context object, may be the view model or model
 	private IProxyObservableObject context;
 	private Object nonObservableContext;
@@ -58,51 +48,327 @@ public class BindingInventory
 	//there may be many levels of inventories, this points to the parent inventory. will be null if it is the root
 	private BindingInventory parentInventory;
 
-	private final TreeMap<String, PathBinding> map = new TreeMap<String, PathBinding>();
+	//tree of tracked paths relative to this inventory's context, one node per member
+	private PathBinding root = new PathBinding(BindingPath.forLevel(0));
+
+	//trees of tracked paths relative to parent inventories ('\' or leading dots), one per level
+	private final ArrayList<PathBinding> relativeRoots = new ArrayList<PathBinding>();
+
+	//compiled paths, including the ones only dereferenced and never tracked
+	private final HashMap<String, BindingPath> compiledPaths = new HashMap<String, BindingPath>();
+
+	//bumped each time a path is signalled, values cached by the path tree are valid until their path is bumped
+	private final AtomicLong generation = new AtomicLong();
+
+	//returned by the path tree when it has no valid cached value
+	private final static Object noCachedValue = new Object();
+
+	//bumped whenever any inventory's parent is set, which may change the ancestors of any other inventory
+	private final static AtomicLong lineage = new AtomicLong();
+
+	//parent inventories by level, as resolved at a lineage generation
+	private volatile Ancestors ancestors;
+
+	//signals held back while a batch is open, see beginBatch()
+	private final Object batchLock = new Object();
+	private int batchDepth;
+	private boolean batchedFullSignal;
+	private final LinkedHashSet<PropagationId> batchedPaths = new LinkedHashSet<PropagationId>();
 
     @Override
-    public void onEvent(String propagationId)
+    public void onEvent(PropagationId propagationId)
     {
         onContextSignaled(propagationId);
     }
 
-    private String[] tempStringArray = new String[0];
+    /**
+     * Same as onEvent, but the new value is sent as is to the elements bound to the changed path, instead of being
+     * read back from the context
+     */
+    @Override
+    public void onChange(ChangeEvent event)
+    {
+        onContextSignaled(event.getPropagationId(), event.getNewValue(), true);
+    }
 
-	public void onContextSignaled(String path)
+	public void onContextSignaled(PropagationId path)
 	{
-		Object value = null;
-
-        if (path != null && map.containsKey(path))
-            value = dereferenceValue(path);
+		onContextSignaled(path, null, false);
+	}
 
-		if (path == null || !map.containsKey(path))
+	private void onContextSignaled(PropagationId path, Object newValue, boolean hasValue)
+	{
+		boolean batched;
+		synchronized (batchLock)
 		{
-            path = (path == null) ? "" : path + ".";
-			
-			NavigableMap<String, PathBinding> subMap = map.subMap(path, false, path+pathTerminator, true);
-
-			Set<String> keys = subMap.keySet();
-			tempStringArray = keys.toArray(tempStringArray);
-			
-			for(int i = 0;i< keys.size();i++)
+			//only the path is kept; its value is read when the batch closes
+			batched = batchDepth > 0;
+			if (batched)
 			{
-				String subPath = tempStringArray[i];
-				ArrayList<IUIElement<?>> elements = subMap.get(subPath).getUIElements();
-				Object subValue = dereferenceValue(subPath);
-									
-				for(int j=0;j<elements.size();j++)
-				{
-					elements.get(j).receiveUpdate(subValue);
-				}
-			}			
+				if (path == null)
+					batchedFullSignal = true;
+				else
+					batchedPaths.add(path);
+			}
 		}
+
+		//only the elements wait for the batch, reads must not get the old cached value meanwhile
+		if (batched)
+			invalidate(path);
 		else
+			propagate(path, newValue, hasValue);
+	}
+
+	/**
+	 * Drops the cached values of a changed path and of everything under it
+	 */
+	private void invalidate(PropagationId path)
+	{
+		if (path == null)
+		{
+			long signalGeneration = generation.incrementAndGet();
+			root.invalidate(signalGeneration);
+			for(int i=0;i<relativeRoots.size();i++)
+				relativeRoots.get(i).invalidate(signalGeneration);
+			return;
+		}
+
+		PathBinding node = findChangedNode(path);
+		if (node != null)
+			node.invalidate(generation.incrementAndGet());
+	}
+
+	/**
+	 * @return : node of a path signalled by the context, or null if nothing is bound to it or under it
+	 */
+	private PathBinding findChangedNode(PropagationId path)
+	{
+		PathBinding node = root;
+		for(PropagationId member = path; member != null && node != null; member = member.getTail())
+		{
+			node = node.getChild(member.getHead());
+		}
+		return node;
+	}
+
+	/**
+	 * Holds back changes signalled by the context until the matching endBatch(). Batches may be nested; only the
+	 * outermost endBatch() sends the updates.
+	 */
+	public void beginBatch()
+	{
+		synchronized (batchLock)
+		{
+			batchDepth++;
+		}
+	}
+
+	/**
+	 * Closes a batch. When the outermost batch closes, each changed path is propagated once, skipping paths under
+	 * another changed path, so every ui element receives only its latest value.
+	 */
+	public void endBatch()
+	{
+		boolean fullSignal;
+		PropagationId[] paths;
+		synchronized (batchLock)
+		{
+			if (batchDepth == 0)
+				throw new IllegalStateException("endBatch() called without a matching beginBatch()");
+			if (--batchDepth > 0)
+				return;
+
+			fullSignal = batchedFullSignal;
+			paths = batchedPaths.toArray(new PropagationId[batchedPaths.size()]);
+			batchedFullSignal = false;
+			batchedPaths.clear();
+		}
+
+		if (fullSignal)
+		{
+			propagate(null, null, false);
+			return;
+		}
+
+		for(int i=0;i<paths.length;i++)
+		{
+			if (!hasChangedParent(paths[i], paths))
+				propagate(paths[i], null, false);
+		}
+	}
+
+	private static boolean hasChangedParent(PropagationId path, PropagationId[] changedPaths)
+	{
+		for(int i=0;i<changedPaths.length;i++)
+		{
+			if (path.isUnder(changedPaths[i]))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Updates the elements bound to a changed path and to everything under it
+	 * @param newValue : value the path has now, if hasValue
+	 * @param hasValue : false if the value isn't known and has to be read from the context
+	 */
+	private void propagate(PropagationId path, Object newValue, boolean hasValue)
+	{
+		if (path == null)
+		{
+			//everything may have changed, including what parent inventories point to
+			long signalGeneration = generation.incrementAndGet();
+			root.invalidate(signalGeneration);
+			signalNode(root, dereferenceValue("."), extractSource(), isContextObservable(), signalGeneration);
+			for(int i=0;i<relativeRoots.size();i++)
+			{
+				PathBinding relativeRoot = relativeRoots.get(i);
+				Object source = extractSourceForPath(relativeRoot.getBindingPath());
+				signalNode(relativeRoot, source, source, false, signalGeneration);
+			}
+			return;
+		}
+
+		PathBinding node = findChangedNode(path);
+		if (node == null)
+			return;
+
+		long signalGeneration = generation.incrementAndGet();
+		node.invalidate(signalGeneration);
+
+		//the change came up through observable objects only, so its value can be cached as long as the context is
+		//observable
+		if (hasValue)
 		{
-			ArrayList<IUIElement<?>> elements = map.get(path).getUIElements();
-			for(int i=0;i<elements.size();i++)
+			//same as a value read through the path: a proxied object stands for its source
+			newValue = BindingPath.extractByProxy(newValue);
+			if (newValue instanceof Integer && takesInts(node))
 			{
-				elements.get(i).receiveUpdate(value);
+				if (isContextObservable())
+					node.setCachedValue(newValue, signalGeneration);
+				sendInt(node.getUIElements(), (Integer)newValue);
 			}
+			else
+				signalNode(node, newValue, newValue, isContextObservable(), signalGeneration);
+			return;
+		}
+
+		//the node's value is resolved from the context, so it can be cached only if its parents are observable
+		boolean cacheable = isContextObservable();
+		Object value = extractSource();
+		BindingPath bindingPath = node.getBindingPath();
+		int last = bindingPath.length() - 1;
+		for(int i=0;i<last;i++)
+		{
+			if (i > 0)
+				cacheable &= isObservable(value);
+			value = bindingPath.dereferenceMember(i, value);
+		}
+
+		if (signalIntNode(node, value))
+			return;
+
+		if (last > 0)
+			cacheable &= isObservable(value);
+		value = bindingPath.dereferenceMember(last, value);
+		signalNode(node, value, value, cacheable, signalGeneration);
+	}
+
+	private boolean isContextObservable()
+	{
+		return context != null && nonObservableContext == null;
+	}
+
+	/**
+	 * Only observable objects, or nulls, signal when their properties change, so only values read from them can be
+	 * cached
+	 */
+	private static boolean isObservable(Object host)
+	{
+		return host == null || host instanceof IProxyObservableObject;
+	}
+
+	/**
+	 * Sends a value to all elements of a node, then walks down its sub tree resolving each child from the value of
+	 * its parent, instead of walking each path from the context again.
+	 * @param node : node to update
+	 * @param elementValue : value to send to the node's elements
+	 * @param value : value the children are resolved from
+	 * @param cacheable : true if the value can be cached, that is if it was read from observable objects only
+	 * @param signalGeneration : generation read before any value was resolved
+	 */
+	private void signalNode(PathBinding node, Object elementValue, Object value, boolean cacheable, long signalGeneration)
+	{
+		if (cacheable)
+			node.setCachedValue(elementValue, signalGeneration);
+
+		ArrayList<IUIElement<?>> elements = node.getUIElements();
+		for(int i=0;i<elements.size();i++)
+		{
+			elements.get(i).receiveUpdate(elementValue);
+		}
+
+		ArrayList<PathBinding> children = node.getChildren();
+		for(int i=0;i<children.size();i++)
+		{
+			PathBinding child = children.get(i);
+			if (signalIntNode(child, value))
+				continue;
+
+			BindingPath childPath = child.getBindingPath();
+			Object childValue = childPath.dereferenceMember(childPath.length() - 1, value);
+			signalNode(child, childValue, childValue, cacheable && (child.getParent() == root || isObservable(value)), signalGeneration);
+		}
+	}
+
+	/**
+	 * Sends an int straight to the elements of a node, if the node has nothing bound under it, some of its elements
+	 * take ints and its property is an IntProperty. The value is not cached, as that would box it.
+	 * @param node : node to update
+	 * @param host : object owning the node's last member
+	 * @return : true if the node was signalled
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean signalIntNode(PathBinding node, Object host)
+	{
+		if (host == null || !takesInts(node))
+			return false;
+
+		BindingPath bindingPath = node.getBindingPath();
+		Property<Object,Object> prop = bindingPath.getProperty(bindingPath.length() - 1, host);
+		if (!(prop instanceof IntProperty))
+			return false;
+
+		sendInt(node.getUIElements(), ((IntProperty<Object>)(Property<?,?>)prop).getInt(host));
+		return true;
+	}
+
+	/**
+	 * @return : true if the node has nothing bound under it and some of its elements take ints
+	 */
+	private static boolean takesInts(PathBinding node)
+	{
+		if (!node.getChildren().isEmpty())
+			return false;
+
+		ArrayList<IUIElement<?>> elements = node.getUIElements();
+		for(int i=0;i<elements.size();i++)
+		{
+			if (elements.get(i) instanceof IIntUIElement)
+				return true;
+		}
+		return false;
+	}
+
+	private static void sendInt(ArrayList<IUIElement<?>> elements, int value)
+	{
+		for(int i=0;i<elements.size();i++)
+		{
+			IUIElement<?> element = elements.get(i);
+			if (element instanceof IIntUIElement)
+				((IIntUIElement)element).receiveIntUpdate(value);
+			else
+				element.receiveUpdate(value);
 		}
 	}
 
@@ -123,26 +389,32 @@ public class BindingInventory
 
     public void merge(BindingInventory inventoryToMerge)
     {
-        Iterator<PathBinding> collection = inventoryToMerge.map.values().iterator();
-
-        while(collection.hasNext())
+        mergeNode(inventoryToMerge.root);
+        for(int i=0;i<inventoryToMerge.relativeRoots.size();i++)
         {
-            PathBinding current = collection.next();
-            ArrayList<IUIElement<?>> elements = current.getUIElements();
-            if (elements != null)
-            {
-                int size = elements.size();
-                for(int i=0;i<size;i++)
-                {
-                    elements.get(i).track(this);
-                }
-            }
+            mergeNode(inventoryToMerge.relativeRoots.get(i));
         }
 
-        inventoryToMerge.map.clear();
+        inventoryToMerge.clearAll();
         inventoryToMerge.setContextObject(null);
     }
 
+    private void mergeNode(PathBinding node)
+    {
+        ArrayList<IUIElement<?>> elements = node.getUIElements();
+        int size = elements.size();
+        for(int i=0;i<size;i++)
+        {
+            elements.get(i).track(this);
+        }
+
+        ArrayList<PathBinding> children = node.getChildren();
+        for(int i=0;i<children.size();i++)
+        {
+            mergeNode(children.get(i));
+        }
+    }
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	public void  fireCommand(String commandPath, CommandArgument commandArg)
 	{
@@ -162,29 +434,54 @@ public class BindingInventory
 	public void setParentInventory(BindingInventory parentInventory)
 	{
 		this.parentInventory = parentInventory;
+		lineage.incrementAndGet();
 	}
 	
 	public BindingInventory getRootInventory()
 	{
-		BindingInventory parentInventory = this;		
-		while(parentInventory.getParentInventory() != null)
-		{
-			parentInventory = parentInventory.getParentInventory();
-		}
-		return parentInventory;
+		BindingInventory[] parents = getAncestors().inventories;
+		return parents.length == 0 ? this : parents[parents.length - 1];
 	}
 	
 	public BindingInventory getInventoryByLevel(int level)
 	{
-		BindingInventory parentInventory = this;	
-		for(int i = 0;i < level; i++)
+		if (level == 0)
+			return this;
+
+		BindingInventory[] parents = getAncestors().inventories;
+		return level <= parents.length ? parents[level - 1] : null;
+	}
+
+	/**
+	 * Gets the chain of parent inventories, walking it only if a parent was set somewhere since it was last walked
+	 */
+	private Ancestors getAncestors()
+	{
+		long generation = lineage.get();
+		Ancestors current = ancestors;
+		if (current != null && current.lineage == generation)
+			return current;
+
+		ArrayList<BindingInventory> parents = new ArrayList<BindingInventory>();
+		for(BindingInventory parent = getParentInventory(); parent != null; parent = parent.getParentInventory())
 		{
-			if (parentInventory.getParentInventory() == null)
-				return null;
-			
-			parentInventory = parentInventory.getParentInventory();
+			parents.add(parent);
+		}
+		current = new Ancestors(generation, parents.toArray(new BindingInventory[parents.size()]));
+		ancestors = current;
+		return current;
+	}
+
+	private static class Ancestors
+	{
+		final long lineage;
+		final BindingInventory[] inventories;
+
+		Ancestors(long lineage, BindingInventory[] inventories)
+		{
+			this.lineage = lineage;
+			this.inventories = inventories;
 		}
-		return parentInventory;
 	}
 	
 	public void setContextObject(Object object)
@@ -192,12 +489,23 @@ public class BindingInventory
 		if (context != null)
 			context.getProxyObservableObject().getObservable().unregisterListener("", this);
         if (object instanceof IProxyObservableObject)
+        {
 		    context = (IProxyObservableObject)object;
+            nonObservableContext = null;
+        }
         else
+        {
+            context = null;
             nonObservableContext = object;
+        }
 
+		//only signalled of the properties something is bound to. Held weakly, so a long lived context doesn't keep
+		//the views of a discarded inventory alive
 		if (context != null)
-			context.getProxyObservableObject().getObservable().registerListener("", this);
+			context.getProxyObservableObject().getObservable().registerWeakListener("", this, getBoundMembers());
+
+		//whatever was cached was read from the previous context
+		root.invalidate(generation.incrementAndGet());
 	}
 
     public Object getContextObject()
@@ -212,121 +520,241 @@ public class BindingInventory
     {
         if (nonObservableContext != null)
             return nonObservableContext;
-        else
+        else if (context != null)
             return context.getProxyObservableObject().getSource();
+        return null;
     }
 
 	public void track (IUIElement<?> element, String path)
 	{
 		if (path == null)
 			return;//no path, no track.
-		
-		if (!map.containsKey(path))
+
+		BindingPath bindingPath = BindingPath.compile(path);
+		if (bindingPath == null)
+			return;
+
+		PathBinding node = getRoot(bindingPath.getLevel());
+		for(int i=0;i<bindingPath.length();i++)
 		{
-			map.put(path, new PathBinding());
+			node = node.getOrAddChild(bindingPath.getMember(i));
+		}
+		node.addUIElement(element);
+
+		if (bindingPath.getLevel() == 0 && bindingPath.length() > 0 && context != null)
+			context.getProxyObservableObject().getObservable().addInterest(this, bindingPath.getMember(0));
+
+		//share the node's compiled path, so dereferencing the path uses the same cached properties
+		if (bindingPath.length() > 0)
+		{
+			synchronized (compiledPaths)
+			{
+				compiledPaths.put(path, node.getBindingPath());
+			}
 		}
-		PathBinding p = map.get(path);
-		p.addUIElement(element);
 	}
 
-	@SuppressWarnings("unchecked")
-	public void sendUpdate(String path, Object value)
+	/**
+	 * Stops caching the value of a path and of every path under it. Values are cached until a change is signalled, so
+	 * paths through properties that change without signalling should not be cached. Undone by clearAll.
+	 * @param path : path relative to this inventory's context
+	 */
+	public void disableCaching(String path)
 	{
-		if (path == null || path.equals("."))
-			return;
-		
-		Matcher matches = pathPattern.matcher(path);
-		if (!matches.find())
+		if (path == null)
 			return;
-		
-		BindingInventory currentInventory = getInventoryByMatchedPattern(matches);
-		Object currentContext = currentInventory.extractSource();
-		String[] chains = split.split(matches.group(2));
-		Property<Object,Object> prop = null;
-		
-		 for(int i=0;i<chains.length;i++)
-		 { 		
-			 if (currentContext == null)
-				 return;
-
-			 String member =chains[i];
-
-             if (currentContext instanceof IPOJO)
-             {
-                 prop = ((IPOJO)currentContext).getProperty(member);
-             }
-             else
-             {
-			    prop = (Property<Object, Object>) PropertyStore.find(currentContext.getClass(), member);
-             }
-
-			if (i + 1 < chains.length)
+
+		BindingPath bindingPath = getBindingPath(path);
+		if (bindingPath == null || bindingPath.getLevel() != 0)
+			return;//only paths of this inventory's own context are read from the cache
+
+		PathBinding node = root;
+		for(int i=0;i<bindingPath.length();i++)
+		{
+			node = node.getOrAddChild(bindingPath.getMember(i));
+		}
+		node.setCacheable(false);
+	}
+
+	/**
+	 * @return : names of the context's properties that have paths bound under them
+	 */
+	private String[] getBoundMembers()
+	{
+		ArrayList<PathBinding> children = root.getChildren();
+		String[] members = new String[children.size()];
+		for(int i=0;i<members.length;i++)
+		{
+			members[i] = children.get(i).getBindingPath().getMember(0);
+		}
+		return members;
+	}
+
+	private PathBinding getRoot(int level)
+	{
+		if (level == 0)
+			return root;
+
+		for(int i=0;i<relativeRoots.size();i++)
+		{
+			if (relativeRoots.get(i).getBindingPath().getLevel() == level)
+				return relativeRoots.get(i);
+		}
+
+		PathBinding relativeRoot = new PathBinding(BindingPath.forLevel(level));
+		relativeRoots.add(relativeRoot);
+		return relativeRoot;
+	}
+
+	/**
+	 * Gets the compiled version of a path, compiling it the first time it is seen
+	 * @param path
+	 * @return : compiled path, or null if it can't be parsed
+	 */
+	private BindingPath getBindingPath(String path)
+	{
+		synchronized (compiledPaths)
+		{
+			BindingPath bindingPath = compiledPaths.get(path);
+			if (bindingPath == null && !compiledPaths.containsKey(path))
 			{
-				currentContext = extractByProxy(prop.get(currentContext));
+				bindingPath = BindingPath.compile(path);
+				compiledPaths.put(path, bindingPath);
 			}
-		 }
-			
-		 if (currentContext == null)
-			 return;//throw new NullPointerException("Cannot send value update to null object.");
-		 if (prop == null)
-			 throw new InvalidParameterException("invalid path supplied: "+path);
-		 
-		 Object propertyCurrentValue = extractByProxy(prop.get(currentContext));
-				 
-		 if ((propertyCurrentValue != null && !propertyCurrentValue.equals(value))				 
-				 || (propertyCurrentValue == null && value != null))
-        prop.set(currentContext,value);
-	}
-
-	private BindingInventory getInventoryByMatchedPattern(Matcher matches)
-	{
-		BindingInventory currentInventory = this;
-		String up = matches.group(1);
-		
-		if (up != null && up.length() == 1 && up.equals("\\"))
-		{
-			currentInventory = getRootInventory();				
+			return bindingPath;
 		}
-		else if (up != null && up.length() > 0)
+	}
+
+	public void sendUpdate(String path, Object value)
+	{
+		if (path == null || path.equals("."))
+			return;
+
+		BindingPath bindingPath = getBindingPath(path);
+		Object currentContext = resolveHostForUpdate(path, bindingPath);
+		if (currentContext == null)
+			return;
+
+		Property<Object,Object> prop = bindingPath.getProperty(bindingPath.length() - 1, currentContext);
+		if (prop == null)
+			throw new InvalidParameterException("invalid path supplied: "+path);
+
+		Object propertyCurrentValue = BindingPath.extractByProxy(prop.get(currentContext));
+
+		if ((propertyCurrentValue != null && !propertyCurrentValue.equals(value))
+				|| (propertyCurrentValue == null && value != null))
+			prop.set(currentContext,value);
+	}
+
+	/**
+	 * Sends an int, without boxing it if the property at the end of the path is an IntProperty
+	 * @param path
+	 * @param value
+	 */
+	@SuppressWarnings("unchecked")
+	public void sendIntUpdate(String path, int value)
+	{
+		if (path == null || path.equals("."))
+			return;
+
+		BindingPath bindingPath = getBindingPath(path);
+		Object currentContext = resolveHostForUpdate(path, bindingPath);
+		if (currentContext == null)
+			return;
+
+		Property<Object,Object> prop = bindingPath.getProperty(bindingPath.length() - 1, currentContext);
+		if (!(prop instanceof IntProperty))
 		{
-			currentInventory = getInventoryByLevel(up.length());
+			sendUpdate(path, value);
+			return;
 		}
-		return currentInventory;
+
+		IntProperty<Object> intProp = (IntProperty<Object>)(Property<?,?>)prop;
+		if (intProp.getInt(currentContext) != value)
+			intProp.setInt(currentContext, value);
 	}
 
-    public static Object generalDereferencedValue(Object source, String path)
-    {
-        if (path == null)
-            return null;
+	/**
+	 * Walks a path up to the object owning its last member
+	 * @return : the owning object, or null if the path can't be resolved or something down the path is null
+	 */
+	private Object resolveHostForUpdate(String path, BindingPath bindingPath)
+	{
+		if (bindingPath == null)
+			return null;
 
-        Matcher matches = pathPattern.matcher(path);
+		Object currentContext = extractSourceForPath(bindingPath);
+		if (currentContext == null)
+			return null;
 
-        if (!matches.find())
-            return null;
+		if (bindingPath.length() == 0)
+			throw new InvalidParameterException("invalid path supplied: "+path);
 
-        String[] chains = split.split(matches.group(2));
+		return bindingPath.resolveHost(currentContext);//null: can't send value update to null object.
+	}
 
-        for(int i=0;i<chains.length;i++)
-        {
-            if (source == null)
-                return null;
+	/**
+	 * Sends several values at once. All inventories the paths are resolved against are batched while the values are
+	 * set, so each changed path propagates once at the end, instead of once per value.
+	 * @param values : values by path, set in the map's iteration order
+	 */
+	public void sendUpdates(Map<String, Object> values)
+	{
+		ArrayList<BindingInventory> batched = new ArrayList<BindingInventory>();
+		try
+		{
+			for(Map.Entry<String, Object> update : values.entrySet())
+			{
+				BindingPath bindingPath = getBindingPath(update.getKey());
+				BindingInventory inventory = bindingPath == null ? null : getInventoryForPath(bindingPath);
+				if (inventory != null && !batched.contains(inventory))
+				{
+					inventory.beginBatch();
+					batched.add(inventory);
+				}
+				sendUpdate(update.getKey(), update.getValue());
+			}
+		}
+		finally
+		{
+			for(int i=0;i<batched.size();i++)
+				batched.get(i).endBatch();
+		}
+	}
 
-            String member = chains[i];
-            Property<Object,Object> prop;
-            if (source instanceof IPOJO)
-                prop = ((IPOJO)source).getProperty(member);
-            else
-                prop = (Property<Object, Object>) PropertyStore.find(source.getClass(), member);
+	private BindingInventory getInventoryForPath(BindingPath bindingPath)
+	{
+		int level = bindingPath.getLevel();
+		if (level == 0)
+			return this;
+
+		//relative paths keep the inventory they were last resolved to
+		long generation = lineage.get();
+		BindingPath.ResolvedInventory resolved = bindingPath.getResolvedInventory();
+		if (resolved != null && resolved.from == this && resolved.lineage == generation)
+			return resolved.inventory;
+
+		BindingInventory inventory = level == BindingPath.ROOT_LEVEL ? getRootInventory() : getInventoryByLevel(level);
+		bindingPath.setResolvedInventory(new BindingPath.ResolvedInventory(this, inventory, generation));
+		return inventory;
+	}
 
-            if (prop == null)
-                return null;
+	private Object extractSourceForPath(BindingPath bindingPath)
+	{
+		BindingInventory currentInventory = getInventoryForPath(bindingPath);
+		if (currentInventory == null)
+			return null;
+		return currentInventory.extractSource();
+	}
 
-            source = extractByProxy(prop.get(source));
-        }
-        return source;
+    public static Object generalDereferencedValue(Object source, String path)
+    {
+        BindingPath bindingPath = BindingPath.compile(path);
+        if (bindingPath == null)
+            return null;
+        return bindingPath.dereference(source);
     }
 
-	@SuppressWarnings("unchecked")
     public Object dereferenceValue(String path)
     {
 		if (path == null)
@@ -339,72 +767,80 @@ public class BindingInventory
             else
                 return context;
         }
-		
-		Matcher matches = pathPattern.matcher(path);
-		
-		if (!matches.find())
+
+		return dereferenceValue(getBindingPath(path));
+	}
+
+	private Object dereferenceValue(BindingPath bindingPath)
+	{
+		if (bindingPath == null)
 			return null;
-		
-		BindingInventory currentInventory = getInventoryByMatchedPattern(matches);
-			
-		Object currentContext = currentInventory.extractSource();
-		return generalDereferencedValue(currentContext, path);
-	}	
-	
-	private static Object extractByProxy(Object obj)
+
+		if (bindingPath.length() == 0 && bindingPath.getLevel() == 0)
+			return dereferenceValue(bindingPath.getPath());
+
+		PathBinding node = findNode(bindingPath);
+		if (node != null)
+		{
+			Object value = node.getCachedValue(noCachedValue);
+			if (value != noCachedValue)
+				return value;
+		}
+
+		return bindingPath.dereference(extractSourceForPath(bindingPath));
+	}
+
+	/**
+	 * Finds the node of a tracked path relative to the current context
+	 * @param bindingPath
+	 * @return : the node, or null if the path is relative to a parent inventory or is not tracked
+	 */
+	private PathBinding findNode(BindingPath bindingPath)
 	{
-		if (obj instanceof IProxyObservableObject)
-			 return((IProxyObservableObject)obj).getProxyObservableObject().getSource();
-		return obj;
+		if (bindingPath.getLevel() != 0)
+			return null;
+
+		PathBinding node = root;
+		for(int i=0;i<bindingPath.length() && node != null;i++)
+		{
+			node = node.getChild(bindingPath.getMember(i));
+		}
+		return node;
 	}
 
-	@SuppressWarnings("unchecked")
     public Class<?> dereferencePropertyType(String path)
 	{
         if (path == null)
             return null;
 
-		if (path != null && path.equals("."))
+		if (path.equals("."))
 			return context.getProxyObservableObject().getSource() == null ? null : context.getProxyObservableObject().getSource().getClass();
-		
-		Matcher matches = pathPattern.matcher(path);
-		if (!matches.find())
+
+		BindingPath bindingPath = getBindingPath(path);
+		if (bindingPath == null)
 			return null;
-		
-		BindingInventory currentInventory = getInventoryByMatchedPattern(matches);
-				
-		Object currentContext = currentInventory.extractSource();
+		if (bindingPath.length() == 0)
+			throw new InvalidParameterException("invalid path supplied: "+path);
 
-		String[] chains = split.split(matches.group(2));
-		
-		Property<Object,Object> prop = null;
-		
-		 for(int i=0;i<chains.length;i++)
-		 { 		
-			 if (currentContext == null)
-				 return null;
-			 String member = chains[i];
-
-             if (currentContext instanceof IPOJO)
-                 prop = ((IPOJO)currentContext).getProperty(member);
-             else
-			    prop = (Property<Object, Object>) PropertyStore.find(currentContext.getClass(), member);
-
-			if (i + 1 < chains.length)
-			{
-				currentContext = extractByProxy(prop.get(currentContext));
-			}
-		 }
-			
-		 if (prop == null)
-			 throw new InvalidParameterException("invalid path supplied: "+path);
-		 
-		 return prop.getType();
+		Object currentContext = bindingPath.resolveHost(extractSourceForPath(bindingPath));
+		if (currentContext == null)
+			return null;
+
+		Property<Object,Object> prop = bindingPath.getProperty(bindingPath.length() - 1, currentContext);
+		if (prop == null)
+			throw new InvalidParameterException("invalid path supplied: "+path);
+
+		return prop.getType();
 	}
 
     public void clearAll()
     {
-        map.clear();
+        root = new PathBinding(BindingPath.forLevel(0));
+        relativeRoots.clear();
+        synchronized (compiledPaths)
+        {
+            compiledPaths.clear();
+        }
     }
 
     //will not support property store!
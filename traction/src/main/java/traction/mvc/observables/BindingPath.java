@@ -0,0 +1,268 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.observables;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import android.util.Property;
+
+import traction.mvc.interfaces.IPOJO;
+
+/**
+ * A property path compiled once, when it is tracked by a binding inventory. Holds the parent level the path is
+ * relative to, the pre-split member chain and the last property resolved for each member, so walking the path
+ * does not parse the string or look up properties again.
+ * @author Tim Stratton
+ *
+ */
+public class BindingPath
+{
+    /**
+     * patterns for parsing property chains
+     */
+    private final static Pattern pathPattern = Pattern.compile("(\\\\|[\\.]*)(.+)");
+    private final static Pattern split = Pattern.compile("\\.");
+
+    /**
+     * level of a path starting with '\', resolved against the root inventory
+     */
+    public final static int ROOT_LEVEL = -1;
+
+    private final String path;
+    private final int level;
+    private final String[] members;
+
+    //last host class and property resolved for each member. Only holds non IPOJO hosts, they keep their own store.
+    private final CachedProperty[] cache;
+
+    //inventory a relative path was last resolved to
+    private volatile ResolvedInventory resolvedInventory;
+
+    private BindingPath(String path, int level, String[] members)
+    {
+        this.path = path;
+        this.level = level;
+        this.members = members;
+        this.cache = new CachedProperty[members.length];
+    }
+
+    /**
+     * Creates an empty path, pointing to the source of an inventory
+     * @param level : 0 for the current inventory, ROOT_LEVEL for the root inventory, or how many inventories up otherwise
+     * @return : compiled path with no members
+     */
+    public static BindingPath forLevel(int level)
+    {
+        return new BindingPath(prefixFor(level), level, new String[0]);
+    }
+
+    /**
+     * Parses a path into its parent level and member chain
+     * @param path : path as given in the layout; may be prefixed by '\' or any number of '.'
+     * @return : compiled path, or null if the path can not be parsed
+     */
+    public static BindingPath compile(String path)
+    {
+        if (path == null)
+            return null;
+
+        Matcher matches = pathPattern.matcher(path);
+        if (!matches.find())
+            return null;
+
+        String up = matches.group(1);
+        int level = 0;
+        if (up != null && up.length() == 1 && up.equals("\\"))
+            level = ROOT_LEVEL;
+        else if (up != null)
+            level = up.length();
+
+        return new BindingPath(path, level, split.split(matches.group(2)));
+    }
+
+    /**
+     * Compiles the path one member down from this one, keeping the same parent level
+     * @param member : name of the member
+     * @return : compiled child path
+     */
+    public BindingPath child(String member)
+    {
+        String[] childMembers = new String[members.length + 1];
+        System.arraycopy(members, 0, childMembers, 0, members.length);
+        childMembers[members.length] = member;
+
+        String childPath = members.length == 0 ? prefixFor(level) + member : path + "." + member;
+        return new BindingPath(childPath, level, childMembers);
+    }
+
+    private static String prefixFor(int level)
+    {
+        if (level == ROOT_LEVEL)
+            return "\\";
+        StringBuilder prefix = new StringBuilder();
+        for(int i=0;i<level;i++)
+            prefix.append('.');
+        return prefix.toString();
+    }
+
+    /**
+     * @return : the path as it was compiled
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return : 0 for the current inventory, ROOT_LEVEL for the root inventory, or how many inventories up otherwise
+     */
+    public int getLevel()
+    {
+        return level;
+    }
+
+    /**
+     * @return : number of members in the chain
+     */
+    public int length()
+    {
+        return members.length;
+    }
+
+    public String getMember(int index)
+    {
+        return members[index];
+    }
+
+    /**
+     * Gets the property of a member for the given host, resolving it only when the host's class changes
+     * @param index : index of the member in the chain
+     * @param host : object the member is read from or written to. Must not be null.
+     * @return : the property, or null if an IPOJO host doesn't expose it
+     */
+    @SuppressWarnings("unchecked")
+    public Property<Object,Object> getProperty(int index, Object host)
+    {
+        if (host instanceof IPOJO)
+            return ((IPOJO)host).getProperty(members[index]);
+
+        Class<?> hostClass = host.getClass();
+        CachedProperty cached = cache[index];
+        if (cached != null && cached.hostClass == hostClass)
+            return cached.property;
+
+        Property<Object,Object> prop = (Property<Object, Object>) PropertyStore.find(hostClass, members[index]);
+        cache[index] = new CachedProperty(hostClass, prop);
+        return prop;
+    }
+
+    /**
+     * Reads a single member
+     * @param index : index of the member in the chain
+     * @param host : object owning the member, as resolved by the previous members
+     * @return : value of the member, or null if the host is null or doesn't have the member
+     */
+    public Object dereferenceMember(int index, Object host)
+    {
+        if (host == null)
+            return null;
+
+        Property<Object,Object> prop = getProperty(index, host);
+        if (prop == null)
+            return null;
+
+        return extractByProxy(prop.get(host));
+    }
+
+    /**
+     * Walks the chain, except for the last member
+     * @param source : source object the path is relative to
+     * @return : the object owning the last member of the chain, or null if something down the path is null
+     */
+    public Object resolveHost(Object source)
+    {
+        int last = members.length - 1;
+        for(int i=0;i<last && source != null;i++)
+        {
+            source = dereferenceMember(i, source);
+        }
+        return source;
+    }
+
+    /**
+     * Walks the whole chain
+     * @param source : source object the path is relative to
+     * @return : value at the end of the path, or null if something down the path is null
+     */
+    public Object dereference(Object source)
+    {
+        for(int i=0;i<members.length && source != null;i++)
+        {
+            source = dereferenceMember(i, source);
+        }
+        return source;
+    }
+
+    ResolvedInventory getResolvedInventory()
+    {
+        return resolvedInventory;
+    }
+
+    void setResolvedInventory(ResolvedInventory resolvedInventory)
+    {
+        this.resolvedInventory = resolvedInventory;
+    }
+
+    static Object extractByProxy(Object obj)
+    {
+        if (obj instanceof IProxyObservableObject)
+            return((IProxyObservableObject)obj).getProxyObservableObject().getSource();
+        return obj;
+    }
+
+    /**
+     * The inventory a relative path resolved to, from which inventory, and at which lineage generation
+     */
+    static class ResolvedInventory
+    {
+        final BindingInventory from;
+        final BindingInventory inventory;
+        final long lineage;
+
+        ResolvedInventory(BindingInventory from, BindingInventory inventory, long lineage)
+        {
+            this.from = from;
+            this.inventory = inventory;
+            this.lineage = lineage;
+        }
+    }
+
+    /**
+     * Pairs a host class with the property resolved for it, so both are swapped at once
+     */
+    private static class CachedProperty
+    {
+        final Class<?> hostClass;
+        final Property<Object,Object> property;
+
+        CachedProperty(Class<?> hostClass, Property<Object,Object> property)
+        {
+            this.hostClass = hostClass;
+            this.property = property;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.observables;
+
+import android.util.Property;
+
+/**
+ * Property of a primitive boolean, readable and writable through getBoolean/setBoolean without going through
+ * the boxed get/set.
+ * @author Tim Stratton
+ *
+ * @param <H> : type of the object owning the property
+ */
+public abstract class BooleanProperty<H>
+    extends Property<H, Boolean>
+{
+    @SuppressWarnings("unchecked")
+    public BooleanProperty(String name)
+    {
+        super((Class<Boolean>)(Class<?>)boolean.class, name);
+    }
+
+    public abstract boolean getBoolean(H object);
+
+    public abstract void setBoolean(H object, boolean value);
+
+    @Override
+    public Boolean get(H object)
+    {
+        return getBoolean(object);
+    }
+
+    @Override
+    public void set(H object, Boolean value)
+    {
+        //text that didn't convert, or a cleared field
+        if (value == null)
+            return;
+        setBoolean(object, value);
+    }
+}
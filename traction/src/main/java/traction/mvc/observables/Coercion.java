@@ -0,0 +1,87 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.observables;
+
+/**
+ * Converts values written through reflective properties to the number type the member takes. The conversion is
+ * picked once per member, so a model's double can set a widget's float without checking types on every write.
+ * Public for the accessors generated from @Bindable, so they take the same values reflective ones do.
+ * @author Tim Stratton
+ *
+ */
+public final class Coercion
+{
+    public static final int NONE = 0;
+    public static final int INT = 1;
+    public static final int LONG = 2;
+    public static final int FLOAT = 3;
+    public static final int DOUBLE = 4;
+    public static final int SHORT = 5;
+    public static final int BYTE = 6;
+
+    private Coercion(){}
+
+    /**
+     * @param type : type the member takes
+     * @return : the conversion numbers need to be assigned to the type, NONE if it isn't a number type
+     */
+    public static int forType(Class<?> type)
+    {
+        if (type == int.class || type == Integer.class)
+            return INT;
+        if (type == long.class || type == Long.class)
+            return LONG;
+        if (type == float.class || type == Float.class)
+            return FLOAT;
+        if (type == double.class || type == Double.class)
+            return DOUBLE;
+        if (type == short.class || type == Short.class)
+            return SHORT;
+        if (type == byte.class || type == Byte.class)
+            return BYTE;
+        return NONE;
+    }
+
+    /**
+     * @param coercion : conversion from forType
+     * @param value : value to write
+     * @return : the value as the member's number type, or the value itself if it isn't a number or already fits
+     */
+    public static Object coerce(int coercion, Object value)
+    {
+        if (coercion == NONE || !(value instanceof Number))
+            return value;
+
+        Number number = (Number)value;
+        switch (coercion)
+        {
+            case INT:
+                return number instanceof Integer ? number : Integer.valueOf(number.intValue());
+            case LONG:
+                return number instanceof Long ? number : Long.valueOf(number.longValue());
+            case FLOAT:
+                return number instanceof Float ? number : Float.valueOf(number.floatValue());
+            case DOUBLE:
+                return number instanceof Double ? number : Double.valueOf(number.doubleValue());
+            case SHORT:
+                return number instanceof Short ? number : Short.valueOf(number.shortValue());
+            case BYTE:
+                return number instanceof Byte ? number : Byte.valueOf(number.byteValue());
+            default:
+                return value;
+        }
+    }
+}
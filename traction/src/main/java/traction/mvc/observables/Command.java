@@ -57,14 +57,29 @@ implements IObservableCommand
 		return null;
 	}
 	
+	//shared by all commands, read and written without boxing
+	private final static BooleanProperty<Object> canExecuteProperty = new BooleanProperty<Object>("CanExecute")
+	{
+		@Override
+		public boolean getBoolean(Object object)
+		{
+			return ((IObservableCommand)object).getCanExecute();
+		}
+
+		@Override
+		public void setBoolean(Object object, boolean value)
+		{
+			((IObservableCommand)object).setCanExecute(value);
+		}
+	};
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public Property<Object, Object> getProperty(String name)
 	{
-		Class<?> c = boolean.class;
 		//The only supported property on a command will be 'CanExecute', for now...
-		if (name.equals("CanExecute") && getSource() != null)
-			return (Property<Object, Object>) Property.of(getSource().getClass(), c, name);
+		if (name.equals("CanExecute") && getSource() instanceof IObservableCommand)
+			return (Property<Object, Object>)(Property<?,?>)canExecuteProperty;
 		return null;
 	}
 
@@ -0,0 +1,57 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.observables;
+
+import android.util.Property;
+
+/**
+ * Property of a primitive float, readable and writable through getFloat/setFloat without going through
+ * the boxed get/set.
+ * @author Tim Stratton
+ *
+ * @param <H> : type of the object owning the property
+ */
+public abstract class FloatProperty<H>
+    extends Property<H, Number>
+{
+    @SuppressWarnings("unchecked")
+    public FloatProperty(String name)
+    {
+        super((Class<Number>)(Class<?>)float.class, name);
+    }
+
+    public abstract float getFloat(H object);
+
+    public abstract void setFloat(H object, float value);
+
+    @Override
+    public Float get(H object)
+    {
+        return getFloat(object);
+    }
+
+    /**
+     * Takes any number, converted the same way reflective properties convert what they write. A null is ignored, as
+     * a float can't hold one.
+     */
+    @Override
+    public void set(H object, Number value)
+    {
+        if (value == null)
+            return;
+        setFloat(object, value.floatValue());
+    }
+}
@@ -11,6 +11,26 @@ interface IObservable
      */
     void registerListener(String sourceName, IObjectListener listener);
 
+    /**
+     * Registers a listener that is only signalled of changes to the properties it is interested in, or to anything
+     * under them. Signals with no property, meaning anything could have changed, are always sent.
+     * @param sourceName : name of source property to track changes and bubble up to inventory
+     * @param interests : names of the properties the listener is interested in so far
+     */
+    void registerListener(String sourceName, IObjectListener listener, String[] interests);
+
+    /**
+     * Registers a listener without keeping it alive. Once the listener is collected its registrations are dropped.
+     * A listener should be registered either weakly or strongly, not both.
+     * @param interests : same as registerListener, or null to be signalled of every change
+     */
+    void registerWeakListener(String sourceName, IObjectListener listener, String[] interests);
+
+    /**
+     * Adds a property to the interests of a listener registered with interests. Does nothing for other listeners.
+     */
+    void addInterest(IObjectListener listener, String propertyName);
+
     /**
      * Remove registration from IObservable. Once called, OnObservableUpdated should no longer signal the listener
      * @param listener : listener to unregister from IObservable
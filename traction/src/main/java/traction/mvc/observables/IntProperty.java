@@ -0,0 +1,57 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.observables;
+
+import android.util.Property;
+
+/**
+ * Property of a primitive int. Binding inventories read and write it through getInt/setInt when the ui element
+ * takes ints as well, so numeric bindings don't box every value.
+ * @author Tim Stratton
+ *
+ * @param <H> : type of the object owning the property
+ */
+public abstract class IntProperty<H>
+    extends Property<H, Number>
+{
+    @SuppressWarnings("unchecked")
+    public IntProperty(String name)
+    {
+        super((Class<Number>)(Class<?>)int.class, name);
+    }
+
+    public abstract int getInt(H object);
+
+    public abstract void setInt(H object, int value);
+
+    @Override
+    public Integer get(H object)
+    {
+        return getInt(object);
+    }
+
+    /**
+     * Takes any number, converted the same way reflective properties convert what they write. A null is ignored, as
+     * an int can't hold one.
+     */
+    @Override
+    public void set(H object, Number value)
+    {
+        if (value == null)
+            return;
+        setInt(object, value.intValue());
+    }
+}
@@ -38,6 +38,28 @@ implements IObservableList<T>
 	//internal list to store
 	protected List<T> internalImp;
 
+    //shared by all lists, read without boxing
+    private final static IntProperty<Object> countProperty = new IntProperty<Object>("Count")
+    {
+        @Override
+        public int getInt(Object object)
+        {
+            return ((ObservableList<?>)object).getCount();
+        }
+
+        @Override
+        public void setInt(Object object, int value)
+        {
+            throw new UnsupportedOperationException("Property " + getName() + " is read-only");
+        }
+
+        @Override
+        public boolean isReadOnly()
+        {
+            return true;
+        }
+    };
+
     private ObservableObject proxy = new ObservableObject() {
         @Override
         protected IPropertyStore getPropertyStore() {
@@ -47,9 +69,8 @@ implements IObservableList<T>
         @Override
         public Property<Object, Object> getProperty(String name)
         {
-            Class<?> c = int.class;
             if (name.equals("Count"))
-                return (Property<Object, Object>) Property.of(getSource().getClass(), c, name);
+                return (Property<Object, Object>)(Property<?,?>)countProperty;
             return null;
         }
 
@@ -15,9 +15,19 @@
 
 package traction.mvc.observables;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.WeakHashMap;
 
+import traction.mvc.implementations.ChangeEvent;
+import traction.mvc.implementations.PropagationId;
+import traction.mvc.interfaces.IChangeListener;
 import traction.mvc.interfaces.IObjectListener;
 import traction.mvc.interfaces.IPOJO;
 import traction.mvc.interfaces.IPropertyStore;
@@ -29,45 +39,345 @@ import android.util.Property;
  *
  */
 public abstract class ObservableObject
-implements IObjectListener, IProxyObservableObject,IPOJO
+implements IChangeListener, IProxyObservableObject,IPOJO
 {
-    //map relating a listener to a source by name
-    protected HashMap<IObjectListener, ArrayList<String>> tracableListeners = new HashMap<IObjectListener, ArrayList<String>>();
+    //registrations of each listener, one per source name it was registered with. A listener registered twice with
+    //the same source is signalled twice.
+    private final HashMap<IObjectListener, ArrayList<Registration>> registrations = new HashMap<IObjectListener, ArrayList<Registration>>();
+
+    //listeners signalled of every change
+    private final ArrayList<IObjectListener> unfilteredListeners = new ArrayList<IObjectListener>();
+
+    //listeners registered with interests, by the property names they are interested in
+    private final HashMap<IObjectListener, HashSet<String>> listenerInterests = new HashMap<IObjectListener, HashSet<String>>();
+    private final HashMap<String, ArrayList<IObjectListener>> listenersByInterest = new HashMap<String, ArrayList<IObjectListener>>();
+
+    //listeners registered weakly, each stands in the registrations and indexes above as its WeakListener
+    private final WeakHashMap<IObjectListener, WeakListener> weakListeners = new WeakHashMap<IObjectListener, WeakListener>();
+
+    //weak listeners that have been collected; their registrations are dropped the next time anything is signalled
+    private final ReferenceQueue<IObjectListener> collectedListeners = new ReferenceQueue<IObjectListener>();
+
+    //guards the registrations and indexes above; notifications don't take it
+    private final Object listenerLock = new Object();
+
+    //flat copy of the registrations, read by notifications. Dropped on any change and rebuilt by the next notification.
+    private volatile ListenerSnapshot snapshot;
 
     private final IObservable observable = new IObservable()
     {
-        @SuppressWarnings("unchecked")
         public void registerListener(String sourceName, IObjectListener listener)
         {
-            synchronized(tracableListeners)
+            if (listener == null)
+                return;
+
+            synchronized(listenerLock)
+            {
+                pruneCollected();
+                register(sourceName, listener, null);
+            }
+        }
+
+        public void registerListener(String sourceName, IObjectListener listener, String[] interests)
+        {
+            if (listener == null)
+                return;
+
+            synchronized(listenerLock)
+            {
+                pruneCollected();
+                register(sourceName, listener, interests);
+            }
+        }
+
+        public void registerWeakListener(String sourceName, IObjectListener listener, String[] interests)
+        {
+            if (listener == null)
+                return;
+
+            synchronized(listenerLock)
             {
-                if (listener != null)
+                pruneCollected();
+                WeakListener weakListener = weakListeners.get(listener);
+                if (weakListener == null)
                 {
-                    if (tracableListeners.get(listener) == null)
-                        tracableListeners.put(listener, new ArrayList<String>());
+                    weakListener = new WeakListener(listener, collectedListeners);
+                    weakListeners.put(listener, weakListener);
+                }
+                register(sourceName, weakListener, interests);
+            }
+        }
 
-                    tracableListeners.get(listener).add(sourceName);
+        public void addInterest(IObjectListener listener, String propertyName)
+        {
+            synchronized(listenerLock)
+            {
+                listener = keyOf(listener);
+                HashSet<String> interests = listenerInterests.get(listener);
+                if (interests == null || !interests.add(propertyName))
+                    return;
+
+                ArrayList<IObjectListener> listeners = listenersByInterest.get(propertyName);
+                if (listeners == null)
+                {
+                    listeners = new ArrayList<IObjectListener>();
+                    listenersByInterest.put(propertyName, listeners);
                 }
+                listeners.add(listener);
+                snapshot = null;
             }
         }
 
         public void unregisterListener(String sourceName, IObjectListener listener)
         {
-            synchronized(tracableListeners)
+            synchronized(listenerLock)
             {
-                if (listener == null || !tracableListeners.containsKey(listener) || !tracableListeners.get(listener).contains(sourceName))
+                listener = keyOf(listener);
+                ArrayList<Registration> listenerRegistrations = listener == null ? null : registrations.get(listener);
+                if (listenerRegistrations == null)
                     return;
-                tracableListeners.get(listener).remove(sourceName);
+
+                for(int i=0;i<listenerRegistrations.size();i++)
+                {
+                    Registration registration = listenerRegistrations.get(i);
+                    if (sourceName == null ? registration.sourceName == null : sourceName.equals(registration.sourceName))
+                    {
+                        //a notification already under way may still hold it
+                        registration.removed = true;
+                        listenerRegistrations.remove(i);
+                        snapshot = null;
+                        break;
+                    }
+                }
+
+                //last source gone, drop the listener from the indexes too
+                if (listenerRegistrations.isEmpty())
+                    removeListener(listener);
+                else
+                    updateFiltering(listener);
             }
         }
 
     };
 
+    private void register(String sourceName, IObjectListener listener, String[] interests)
+    {
+        if (interests != null && !listenerInterests.containsKey(listener))
+            listenerInterests.put(listener, new HashSet<String>());
+        addRegistration(sourceName, listener, interests == null);
+        updateFiltering(listener);
+
+        if (interests == null)
+            return;
+        for(int i=0;i<interests.length;i++)
+            observable.addInterest(listener, interests[i]);
+    }
+
+    /**
+     * A listener is signalled of every change as long as any of its registrations was made without interests, and
+     * only of its interests otherwise
+     */
+    private void updateFiltering(IObjectListener listener)
+    {
+        ArrayList<Registration> listenerRegistrations = registrations.get(listener);
+        boolean unfiltered = false;
+        for(int i=0;i<listenerRegistrations.size() && !unfiltered;i++)
+            unfiltered = listenerRegistrations.get(i).unfiltered;
+
+        if (unfiltered == unfilteredListeners.contains(listener))
+            return;
+        if (unfiltered)
+            unfilteredListeners.add(listener);
+        else
+            unfilteredListeners.remove(listener);
+        snapshot = null;
+    }
+
+    /**
+     * The key a listener is registered under: its WeakListener when registered weakly, otherwise itself
+     */
+    private IObjectListener keyOf(IObjectListener listener)
+    {
+        WeakListener weakListener = listener == null ? null : weakListeners.get(listener);
+        return weakListener == null ? listener : weakListener;
+    }
+
+    private void removeListener(IObjectListener listener)
+    {
+        ArrayList<Registration> listenerRegistrations = registrations.remove(listener);
+        if (listenerRegistrations == null)
+            return;
+        for(int i=0;i<listenerRegistrations.size();i++)
+            listenerRegistrations.get(i).removed = true;
+        snapshot = null;
+
+        unfilteredListeners.remove(listener);
+        HashSet<String> interests = listenerInterests.remove(listener);
+        if (interests == null)
+            return;
+        for(String propertyName : interests)
+        {
+            ArrayList<IObjectListener> listeners = listenersByInterest.get(propertyName);
+            listeners.remove(listener);
+            if (listeners.isEmpty())
+                listenersByInterest.remove(propertyName);
+        }
+    }
+
+    /**
+     * Drops the registrations of weak listeners that have been collected. Only locks when there is something to drop.
+     */
+    private void pruneCollected()
+    {
+        Reference<? extends IObjectListener> collected = collectedListeners.poll();
+        if (collected == null)
+            return;
+
+        synchronized(listenerLock)
+        {
+            while(collected != null)
+            {
+                removeListener((WeakListener)collected);
+                collected = collectedListeners.poll();
+            }
+        }
+    }
+
+    private void addRegistration(String sourceName, IObjectListener listener, boolean unfiltered)
+    {
+        ArrayList<Registration> listenerRegistrations = registrations.get(listener);
+        if (listenerRegistrations == null)
+        {
+            listenerRegistrations = new ArrayList<Registration>();
+            registrations.put(listener, listenerRegistrations);
+        }
+        listenerRegistrations.add(new Registration(listener, sourceName, unfiltered));
+        snapshot = null;
+    }
+
+    private ListenerSnapshot getSnapshot()
+    {
+        ListenerSnapshot current = snapshot;
+        if (current != null)
+            return current;
+
+        synchronized(listenerLock)
+        {
+            if (snapshot == null)
+            {
+                //unfiltered listeners are already signalled of every property
+                HashSet<IObjectListener> unfiltered = new HashSet<IObjectListener>(unfilteredListeners);
+                HashMap<String, Registration[]> byInterest = new HashMap<String, Registration[]>();
+                for(Map.Entry<String, ArrayList<IObjectListener>> interest : listenersByInterest.entrySet())
+                {
+                    ArrayList<IObjectListener> interested = new ArrayList<IObjectListener>(interest.getValue());
+                    interested.removeAll(unfiltered);
+                    if (!interested.isEmpty())
+                        byInterest.put(interest.getKey(), flatten(interested));
+                }
+                snapshot = new ListenerSnapshot(flatten(registrations.keySet()), flatten(unfilteredListeners), byInterest);
+            }
+            return snapshot;
+        }
+    }
+
+    private Registration[] flatten(Collection<IObjectListener> listeners)
+    {
+        ArrayList<Registration> flat = new ArrayList<Registration>();
+        for(IObjectListener listener : listeners)
+            flat.addAll(registrations.get(listener));
+        return flat.toArray(new Registration[flat.size()]);
+    }
+
+    /**
+     * A listener, the name of the source it is registered with, and whether it was registered without interests
+     */
+    private static class Registration
+    {
+        final IObjectListener listener;
+        final String sourceName;
+        final boolean unfiltered;
+        volatile boolean removed;
+
+        Registration(IObjectListener listener, String sourceName, boolean unfiltered)
+        {
+            this.listener = listener;
+            this.sourceName = sourceName;
+            this.unfiltered = unfiltered;
+        }
+    }
+
+    /**
+     * Stands in for a listener registered weakly, so neither the registrations nor a snapshot keep it alive
+     */
+    private static class WeakListener
+    extends WeakReference<IObjectListener>
+    implements IObjectListener
+    {
+        WeakListener(IObjectListener listener, ReferenceQueue<IObjectListener> queue)
+        {
+            super(listener, queue);
+        }
+
+        @Override
+        public void onEvent(PropagationId propagationId)
+        {
+            IObjectListener listener = get();
+            if (listener != null)
+                listener.onEvent(propagationId);
+        }
+    }
+
+    /**
+     * Registrations to signal of changes to any property, of changes to specific properties, and of signals with no
+     * property. Never changed once built.
+     */
+    private static class ListenerSnapshot
+    {
+        final Registration[] everyone;
+        final Registration[] unfiltered;
+        final HashMap<String, Registration[]> byInterest;
+
+        ListenerSnapshot(Registration[] everyone, Registration[] unfiltered, HashMap<String, Registration[]> byInterest)
+        {
+            this.everyone = everyone;
+            this.unfiltered = unfiltered;
+            this.byInterest = byInterest;
+        }
+    }
+
     public void addOnChange(OnPropertyChangedEvent onPropertyChangedEvent)
     {
         getObservable().registerListener("", onPropertyChangedEvent);
     }
 
+    /**
+     * Same as addOnChange, but the event is only signalled of changes to the given properties, or to anything under
+     * them. Signals with no property, meaning anything could have changed, are still sent.
+     * @param propertyNames : names of the properties to be signalled of
+     */
+    public void addOnChange(OnPropertyChangedEvent onPropertyChangedEvent, String... propertyNames)
+    {
+        getObservable().registerListener("", onPropertyChangedEvent, propertyNames);
+    }
+
+    /**
+     * Same as addOnChange, but this object won't keep the event alive. The caller must hold on to it for as long as
+     * it should be signalled.
+     */
+    public void addWeakOnChange(OnPropertyChangedEvent onPropertyChangedEvent)
+    {
+        getObservable().registerWeakListener("", onPropertyChangedEvent, null);
+    }
+
+    /**
+     * Weak version of addOnChange with property names
+     */
+    public void addWeakOnChange(OnPropertyChangedEvent onPropertyChangedEvent, String... propertyNames)
+    {
+        getObservable().registerWeakListener("", onPropertyChangedEvent, propertyNames);
+    }
+
     public void removeOnChange(OnPropertyChangedEvent onPropertyChangedEvent)
     {
         getObservable().unregisterListener("", onPropertyChangedEvent);
@@ -113,38 +423,96 @@ implements IObjectListener, IProxyObservableObject,IPOJO
 		//notify change
         notifyListenerInternal(propertyName, oldPropertyValue, newPropertyValue);
 	}
-	
-	private IObjectListener[] tempListenerArray = new IObjectListener[0];
 
+	/**
+	 * Same as notifyListenerInternal with a PropagationId. Kept so subclasses signalling, or overriding, with dotted
+	 * strings still work.
+	 */
 	protected void notifyListenerInternal(String propertyName, Object oldValue, Object newValue)
-	{	
-		synchronized (tracableListeners)
+	{
+		notifyListenerInternal(PropagationId.of(propertyName), oldValue, newValue);
+	}
+
+	protected void notifyListenerInternal(PropagationId propertyName, Object oldValue, Object newValue)
+	{
+		signal(propertyName, oldValue, newValue, propertyName != null);
+	}
+
+	/**
+	 * Signals the listeners of a change, once any signal being sent on this thread is done
+	 * @param hasValues : true if the values are those of the change, false if they aren't known
+	 */
+	private void signal(PropagationId propertyName, Object oldValue, Object newValue, boolean hasValues)
+	{
+		SignalDispatcher.dispatch(this, propertyName, oldValue, newValue, hasValues);
+	}
+
+	/**
+	 * Signals the listeners of a change now. Only called by the SignalDispatcher.
+	 */
+	void deliver(PropagationId propertyName, Object oldValue, Object newValue, boolean hasValues)
+	{
+		pruneCollected();
+		ListenerSnapshot listeners = getSnapshot();
+		if (propertyName == null)
+		{
+			//anything could have changed, everyone is signalled
+			signalListeners(listeners.everyone, propertyName, oldValue, newValue, false);
+			return;
+		}
+
+		signalListeners(listeners.unfiltered, propertyName, oldValue, newValue, hasValues);
+
+		//only the listeners interested in the property, or in something under it
+		Registration[] interested = listeners.byInterest.get(propertyName.getHead());
+		if (interested != null)
+			signalListeners(interested, propertyName, oldValue, newValue, hasValues);
+	}
+
+	private void signalListeners(Registration[] registrations, PropagationId propertyName, Object oldValue, Object newValue, boolean hasValues)
+	{
+		for(int i=0;i<registrations.length;i++)
 		{
-			tempListenerArray = tracableListeners.keySet().toArray(tempListenerArray);
-			
-			for(int i=0;i<tracableListeners.size();i++)
+			Registration registration = registrations[i];
+			if (registration.removed)
+				continue;
+
+			IObjectListener listener = registration.listener;
+			if (listener instanceof WeakListener)
 			{
-				//gets a listener
-				IObjectListener listener = tempListenerArray[i];
-				
-				//get the sources of the listeners
-				ArrayList<String> sourceNames = tracableListeners.get(listener);
-				for(int j=0;j<sourceNames.size();j++)
+				listener = ((WeakListener)listener).get();
+				if (listener == null)
+					continue;
+			}
+			if (listener instanceof OnPropertyChangedEvent)
+			{
+				((OnPropertyChangedEvent)listener).onChange(propertyName == null ? null : propertyName.toString(), oldValue, newValue);
+			}
+
+			PropagationId propagationId = IObjectListener.Utility.generatePropagationId(propertyName, registration.sourceName);
+			if (hasValues && listener instanceof IChangeListener)
+			{
+				//hand the values along, so they don't have to be read back
+				ChangeEvent event = ChangeEvent.obtain(propagationId, oldValue, newValue);
+				try
 				{
-					String sourceName = sourceNames.get(j);
-                    if (listener instanceof OnPropertyChangedEvent)
-                    {
-                        ((OnPropertyChangedEvent)listener).onChange(propertyName, oldValue, newValue);
-                    }
-                    listener.onEvent(IObjectListener.Utility.generatePropagationId(propertyName, sourceName));
+					((IChangeListener)listener).onChange(event);
+				}
+				finally
+				{
+					event.recycle();
 				}
 			}
+			else
+			{
+				listener.onEvent(propagationId);
+			}
 		}
 	}
 
 	public void notifyListener()
 	{
-        notifyListenerInternal(null, null, null);
+        notifyListenerInternal((String)null, null, null);
 	}
 
 //	@SuppressWarnings("unchecked")
@@ -162,9 +530,26 @@ implements IObjectListener, IProxyObservableObject,IPOJO
 //	}
 
 	@Override
+	public void onEvent(PropagationId propagationId)
+	{
+        signal(propagationId, null, null, false);
+	}
+
+	/**
+	 * Same as onEvent with a PropagationId, for callers signalling with dotted strings. Observables only call the
+	 * PropagationId overload, so overriding this one has no effect on signals.
+	 * @deprecated : use onEvent(PropagationId)
+	 */
+	@Deprecated
 	public void onEvent(String propagationId)
 	{
-        notifyListenerInternal(propagationId, null, null);
+        onEvent(PropagationId.of(propagationId));
+	}
+
+	@Override
+	public void onChange(ChangeEvent event)
+	{
+        signal(event.getPropagationId(), event.getOldValue(), event.getNewValue(), true);
 	}
 
     protected abstract IPropertyStore getPropertyStore();
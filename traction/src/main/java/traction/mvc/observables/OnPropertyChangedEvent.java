@@ -1,12 +1,13 @@
 package traction.mvc.observables;
 
+import traction.mvc.implementations.PropagationId;
 import traction.mvc.interfaces.IObjectListener;
 
 public abstract class OnPropertyChangedEvent
     implements IObjectListener
 {
     @Override
-    public void onEvent(String propagationId) {
+    public void onEvent(PropagationId propagationId) {
         //eh, nothing
     }
 
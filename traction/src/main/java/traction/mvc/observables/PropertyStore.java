@@ -18,10 +18,15 @@ package traction.mvc.observables;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.concurrent.ConcurrentHashMap;
 import android.util.Property;
 
+import traction.mvc.interfaces.IPropertyAccessorFactory;
 import traction.mvc.interfaces.IPropertyStore;
+import traction.mvc.util.Log;
 
 /**
  * A utility class for searching properties on an object and cache them
@@ -31,10 +36,17 @@ import traction.mvc.interfaces.IPropertyStore;
 public class PropertyStore
     implements IPropertyStore
 {
-	//prefixes to test against
-	private static final String[] prefixes = new String[]{"get","is"};
-	private static final Class<?>[] emptyclasses = new Class<?>[]{};
+	//direct accessors registered per class
+	private static final ConcurrentHashMap<Class<?>, IPropertyAccessorFactory> accessorFactories = new ConcurrentHashMap<Class<?>, IPropertyAccessorFactory>();
+
+	//properties found so far, by class then by name, shared by all stores. Holds 'missing' for names with no property
+	private static final ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>> resolved = new ConcurrentHashMap<Class<?>, ConcurrentHashMap<String, Object>>();
+	private static final Object missing = new Object();
+
+	//public members of each class looked up so far, by the property they belong to
+	private static final ConcurrentHashMap<Class<?>, MemberIndex> memberIndexes = new ConcurrentHashMap<Class<?>, MemberIndex>();
 	
+	//for stores that resolve properties of their own instead of from the shared cache
 	protected final Hashtable<String, Property<?,?>> properties = new Hashtable<String, Property<?,?>>();
 	private final Class<?> hostClass;
 
@@ -49,13 +61,31 @@ public class PropertyStore
     @Override
 	public Property<?,?> getProperty(String name)
 	{
-		if (!properties.containsKey(name))
-		{
-			properties.put(name, find(hostClass, name) );
-		}
-		return properties.get(name);
+		return find(hostClass, name);
 	}
 
+    /**
+     * Registers direct accessors for a class, found before falling back to reflection
+     * @param hostClass : class the accessors read from and write to
+     * @param factory : creates the accessors
+     */
+    public static void registerAccessorFactory(Class<?> hostClass, IPropertyAccessorFactory factory)
+    {
+        accessorFactories.put(hostClass, factory);
+        resolved.remove(hostClass);
+    }
+
+    /**
+     * Drops the accessors registered for a class along with every property found for it so far, missing ones
+     * included. Its generated accessors, if any, are picked up again the next time it is looked up.
+     * @param hostClass : class the accessors were registered for
+     */
+    public static void unregisterAccessorFactory(Class<?> hostClass)
+    {
+        accessorFactories.remove(hostClass);
+        resolved.remove(hostClass);
+    }
+
     /**
 	 * Try to find a property.	 * 
 	 * @param hostClass
@@ -64,67 +94,228 @@ public class PropertyStore
 	 */
 	public static Property<?,?> find(Class<?> hostClass, String name)
 	{
-		//The Property Class in the android SDK requires a property type, which we don't have at this time, so we must look it up manually
-		Class<?> valueType = null;
-		//method check
-		for(int i=0;i<prefixes.length;i++)
+		Property<?,?> property = tryFind(hostClass, name);
+		if (property == null)
+			throw new RuntimeException("Cannot find property '"+name+"' in type '"+hostClass.getName()+"'.");
+		return property;
+	}
+
+	/**
+	 * Finds a property, looking it up only the first time the class and name are asked for
+	 * @param hostClass
+	 * @param name
+	 * @return : the property, or null if the class doesn't have it
+	 */
+	public static Property<?,?> tryFind(Class<?> hostClass, String name)
+	{
+		ConcurrentHashMap<String, Object> classProperties = resolved.get(hostClass);
+		if (classProperties == null)
+		{
+			registerGeneratedAccessors(hostClass);
+			classProperties = new ConcurrentHashMap<String, Object>();
+			ConcurrentHashMap<String, Object> existing = resolved.putIfAbsent(hostClass, classProperties);
+			if (existing != null)
+				classProperties = existing;
+		}
+
+		Object property = classProperties.get(name);
+		if (property == null)
+		{
+			property = lookup(hostClass, name);
+			classProperties.put(name, property == null ? missing : property);
+		}
+		return property == missing ? null : (Property<?,?>)property;
+	}
+
+	/**
+	 * Resolves every property of a class up front, so the first binding to it finds them cached
+	 * @param hostClass
+	 */
+	public static void prewarm(Class<?> hostClass)
+	{
+		for(String name : getIndex(hostClass).byName.keySet())
+		{
+			tryFind(hostClass, name);
+		}
+	}
+
+	/**
+	 * Registers the accessors generated for a @Bindable class, if there are any. Called when a class is first looked up.
+	 */
+	private static void registerGeneratedAccessors(Class<?> hostClass)
+	{
+		if (accessorFactories.containsKey(hostClass))
+			return;
+		try
+		{
+			Class<?> generated = Class.forName(hostClass.getName() + "$$Accessors", true, hostClass.getClassLoader());
+			accessorFactories.putIfAbsent(hostClass, (IPropertyAccessorFactory)generated.newInstance());
+		}
+		catch (ClassNotFoundException ex)
+		{
+			//not generated, reflection it is
+		}
+		catch (Exception ex)
+		{
+			Log.e("Generated accessors for '"+hostClass.getName()+"' could not be used", ex);
+		}
+	}
+
+	private static Property<?,?> lookup(Class<?> hostClass, String name)
+	{
+		IPropertyAccessorFactory factory = accessorFactories.get(hostClass);
+		if (factory != null)
+		{
+			Property<?,?> accessor = factory.createAccessor(name);
+			if (accessor != null)
+				return accessor;
+		}
+
+		//names must match exactly, signals carry the property's own name
+		PropertyMembers members = getIndex(hostClass).byName.get(name);
+		if (members == null)
+			return null;
+
+		//The Property Class in the android SDK requires a property type, which we don't have at this time, so we take it from the members
+		if (members.getter != null)
+		{
+			Class<?> valueType = members.getter.getReturnType();
+			//we have the members already, keep them instead of letting Property.of look them up again
+			return new AccessorProperty(valueType, members.name, members.getter, members.findSetter(valueType), null);
+		}
+
+		if (members.field != null)
+			return new AccessorProperty(members.field.getType(), members.name, null, null, members.field);
+
+		//try setter only
+		if (!members.setters.isEmpty())
+			return new setterPropertyOnly(members.setters.get(0), members.name);
+
+		return null;
+	}
+
+	private static MemberIndex getIndex(Class<?> hostClass)
+	{
+		MemberIndex index = memberIndexes.get(hostClass);
+		if (index == null)
 		{
-			try
+			index = new MemberIndex(hostClass);
+			MemberIndex existing = memberIndexes.putIfAbsent(hostClass, index);
+			if (existing != null)
+				index = existing;
+		}
+		return index;
+	}
+
+	/**
+	 * Getter, field and setters found for one property name
+	 */
+	private static class PropertyMembers
+	{
+		final String name;
+		Method getter;
+		Field field;
+		final ArrayList<Method> setters = new ArrayList<Method>();
+
+		PropertyMembers(String name)
+		{
+			this.name = name;
+		}
+
+		/**
+		 * Finds the setter taking the property's type, or else the most specific one taking a supertype of it, as
+		 * with a setter inherited from a generic base class
+		 */
+		Method findSetter(Class<?> valueType)
+		{
+			Method widening = null;
+			for(int i=0;i<setters.size();i++)
 			{
-				Method method = hostClass.getMethod(prefixes[i]+name,emptyclasses);
-				if (method != null)
-				{
-					valueType = method.getReturnType();
-					break;
-				}
+				Class<?> parameterType = setters.get(i).getParameterTypes()[0];
+				if (parameterType == valueType)
+					return setters.get(i);
+				if (parameterType.isAssignableFrom(valueType)
+						&& (widening == null || widening.getParameterTypes()[0].isAssignableFrom(parameterType)))
+					widening = setters.get(i);
 			}
-			catch(Exception ex){}
+			return widening;//null if read only
 		}
-		
-		//field check
-		if (valueType == null)
+	}
+
+	/**
+	 * Properties of a class by name, built from a single pass over its public methods and fields. Getters are
+	 * 'get' or 'is' methods, 'get' winning over 'is'; setters are 'set' methods taking one argument. Bridge methods
+	 * are skipped, and of getters sharing a name the one with the most specific return type is kept.
+	 */
+	private static class MemberIndex
+	{
+		final HashMap<String, PropertyMembers> byName = new HashMap<String, PropertyMembers>();
+
+		MemberIndex(Class<?> hostClass)
 		{
-			try
+			Method[] methods = hostClass.getMethods();
+			for(int i=0;i<methods.length;i++)
 			{
-				Field field = hostClass.getField(name);
-				if (field != null)
+				Method method = methods[i];
+				//a covariant or generic override leaves a bridge typed as the overridden method
+				if (method.isBridge() || method.isSynthetic())
+					continue;
+
+				String methodName = method.getName();
+				int parameters = method.getParameterTypes().length;
+				if (parameters == 0 && methodName.length() > 3 && methodName.startsWith("get"))
+				{
+					PropertyMembers members = getOrAdd(methodName.substring(3));
+					if (members.getter == null || members.getter.getName().startsWith("is") || isMoreSpecific(method, members.getter))
+						members.getter = method;
+				}
+				else if (parameters == 0 && methodName.length() > 2 && methodName.startsWith("is"))
+				{
+					PropertyMembers members = getOrAdd(methodName.substring(2));
+					if (members.getter == null || (members.getter.getName().startsWith("is") && isMoreSpecific(method, members.getter)))
+						members.getter = method;
+				}
+				else if (parameters == 1 && methodName.length() > 3 && methodName.startsWith("set"))
 				{
-					valueType = field.getType();
+					getOrAdd(methodName.substring(3)).setters.add(method);
 				}
 			}
-			catch(Exception ex){}
+
+			Field[] fields = hostClass.getFields();
+			for(int i=0;i<fields.length;i++)
+			{
+				getOrAdd(fields[i].getName()).field = fields[i];
+			}
 		}
-		
-		if (valueType == null)
-        {
-            //try setter only
-            try
-            {
-                Method[] ms = hostClass.getMethods();
-                for(int ii=0;ii<ms.length;ii++)
-                {
-                    if (ms[ii].getName().equals("set"+name) && ms[ii].getParameterTypes() != null && ms[ii].getParameterTypes().length == 1)
-                    {
-                        return new setterPropertyOnly(ms[ii], name);
-                    }
-                }
-            }
-            catch(Exception ex){}
 
-			throw new RuntimeException("Cannot find property '"+name+"' in type '"+hostClass.getName()+"'.");
-        }
-		
-		//we have th host class, the value class and the name, now we can get the property
-		return Property.of(hostClass, valueType, name);
+		private static boolean isMoreSpecific(Method getter, Method than)
+		{
+			return than.getReturnType() != getter.getReturnType() && than.getReturnType().isAssignableFrom(getter.getReturnType());
+		}
+
+		private PropertyMembers getOrAdd(String name)
+		{
+			PropertyMembers members = byName.get(name);
+			if (members == null)
+			{
+				members = new PropertyMembers(name);
+				byName.put(name, members);
+			}
+			return members;
+		}
 	}
 
     static class setterPropertyOnly
         extends Property<Object, Object>
     {
-        Method m;
+        private final Method m;
+        private final int coercion;
+
+        @SuppressWarnings("unchecked")
         public setterPropertyOnly(Method setter, String name) {
             super((Class<Object>)setter.getParameterTypes()[0], name);
-            m = setter;
+            m = AccessorProperty.makeAccessible(setter);
+            coercion = Coercion.forType(setter.getParameterTypes()[0]);
         }
 
         @Override
@@ -143,11 +334,11 @@ public class PropertyStore
         public void set(Object object, Object value)
         {
             try {
-                m.invoke(object, value);
+                m.invoke(object, Coercion.coerce(coercion, value));
             } catch (IllegalAccessException e) {
-                e.printStackTrace();
+                throw new AssertionError();
             } catch (InvocationTargetException e) {
-                e.printStackTrace();
+                throw new RuntimeException(e.getCause());
             }
         }
     }
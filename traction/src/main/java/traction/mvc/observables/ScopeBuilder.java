@@ -8,15 +8,33 @@ import java.lang.reflect.Proxy;
 import java.util.Collection;
 import java.util.Hashtable;
 import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
 
 import traction.mvc.interfaces.IObservableCommand;
 import traction.mvc.interfaces.IObservableCursor;
 import traction.mvc.interfaces.IPOJO;
+import traction.mvc.util.Log;
 
 public class ScopeBuilder
 {
+    //implementations generated for @Bindable scope interfaces, or the interface itself when there is none
+    private static final ConcurrentHashMap<Class<?>, Class<?>> generatedScopes = new ConcurrentHashMap<Class<?>, Class<?>>();
+
     public static Object CreateScope(Class<?> scopeInterface)
     {
+        Class<?> generated = getGeneratedScope(scopeInterface);
+        if (generated != scopeInterface)
+        {
+            try
+            {
+                return generated.newInstance();
+            }
+            catch (Exception ex)
+            {
+                Log.e("Generated scope for '"+scopeInterface.getName()+"' could not be used", ex);
+            }
+        }
+
         return Proxy
                 .newProxyInstance(
                         scopeInterface.getClassLoader(),
@@ -25,6 +43,143 @@ public class ScopeBuilder
                 );
     }
 
+    /**
+     * Loads the generated implementation of a scope interface, or works out its methods if it has none, so the first
+     * scope created doesn't have to
+     * @param scopeInterface
+     */
+    public static void prewarm(Class<?> scopeInterface)
+    {
+        if (getGeneratedScope(scopeInterface) != scopeInterface)
+            return;
+
+        //making one throwaway proxy has the runtime generate and cache the class the scopes will use
+        Class<?> proxyClass = Proxy
+                .newProxyInstance(
+                        scopeInterface.getClassLoader(),
+                        new Class[]{scopeInterface, IProxyObservableObject.class, IPOJO.class},
+                        unusedHandler
+                ).getClass();
+        Method[] methods = scopeInterface.getMethods();
+        for(int i=0;i<methods.length;i++)
+        {
+            try
+            {
+                getScopeMethod(proxyClass, methods[i]);
+            }
+            catch (RuntimeException ex)
+            {
+                //not a property; it fails when called, as it would have anyway
+            }
+        }
+    }
+
+    //handler of the proxy made when prewarming, which is never called
+    private static final InvocationHandler unusedHandler = new InvocationHandler()
+    {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args)
+        {
+            return null;
+        }
+    };
+
+    private static Class<?> getGeneratedScope(Class<?> scopeInterface)
+    {
+        Class<?> generated = generatedScopes.get(scopeInterface);
+        if (generated == null)
+        {
+            try
+            {
+                generated = Class.forName(scopeInterface.getName() + "$$Scope", true, scopeInterface.getClassLoader());
+            }
+            catch (ClassNotFoundException ex)
+            {
+                generated = scopeInterface;
+            }
+            generatedScopes.put(scopeInterface, generated);
+        }
+        return generated;
+    }
+
+    //what each scope method does, worked out on its first call instead of on every call
+    private static final ConcurrentHashMap<Method, ScopeMethod> scopeMethods = new ConcurrentHashMap<Method, ScopeMethod>();
+
+    private static ScopeMethod getScopeMethod(Class<?> proxyClass, Method method)
+    {
+        ScopeMethod scopeMethod = scopeMethods.get(method);
+        if (scopeMethod == null)
+        {
+            scopeMethod = new ScopeMethod(proxyClass, method);
+            scopeMethods.put(method, scopeMethod);
+        }
+        return scopeMethod;
+    }
+
+    static class ScopeMethod
+    {
+        static final int DEFAULT_NONE = 0;
+        static final int DEFAULT_LIST = 1;
+        static final int DEFAULT_CURSOR = 2;
+        static final int DEFAULT_COMMAND = 3;
+        static final int DEFAULT_SCOPE = 4;
+
+        final boolean isSetter;
+        final String name;
+        final Class<?> returnType;
+        final boolean isReadOnly;
+        final int defaultKind;
+        final Object primitiveDefault;
+
+        ScopeMethod(Class<?> proxyClass, Method method)
+        {
+            String methodName = method.getName();
+            returnType = method.getReturnType();
+            isSetter = returnType.equals(Void.TYPE);
+            if (isSetter)
+            {
+                name = methodName.substring(3);
+                isReadOnly = false;
+                defaultKind = DEFAULT_NONE;
+                primitiveDefault = null;
+                return;
+            }
+
+            name = methodName.substring(methodName.startsWith("is") ? 2 : 3);
+            isReadOnly = Property.of(proxyClass, returnType, name).isReadOnly();
+
+            if (Collection.class.isAssignableFrom(returnType) || Iterable.class.isAssignableFrom(returnType))
+                defaultKind = DEFAULT_LIST;
+            else if (IObservableCursor.class.isAssignableFrom(returnType))
+                defaultKind = DEFAULT_CURSOR;
+            else if (IObservableCommand.class.isAssignableFrom(returnType))
+                defaultKind = DEFAULT_COMMAND;
+            else if (returnType.isInterface())
+                defaultKind = DEFAULT_SCOPE;
+            else
+                defaultKind = DEFAULT_NONE;
+
+            if (!returnType.isPrimitive())
+                primitiveDefault = null;
+            else if (boolean.class == returnType)
+                primitiveDefault = false;
+            else if (long.class == returnType)
+                primitiveDefault = 0L;
+            else if (float.class == returnType)
+                primitiveDefault = 0f;
+            else if (double.class == returnType)
+                primitiveDefault = 0d;
+            else if (short.class == returnType)
+                primitiveDefault = (short)0;
+            else if (byte.class == returnType)
+                primitiveDefault = (byte)0;
+            else if (char.class == returnType)
+                primitiveDefault = (char)0;
+            else
+                primitiveDefault = 0;
+        }
+    }
+
     static class internalScope
         implements InvocationHandler {
 
@@ -62,58 +217,42 @@ public class ScopeBuilder
             {
                 if (!name.equals("getProperty"))
                     throw new IllegalStateException("only 'getProperty' may be called on 'IPOJO'.");
-                return map.getProperty((String)args[1]);
+                return map.getProperty((String)args[0]);
             }
 
 
-            if (method.getReturnType().equals(Void.TYPE))//set
+            ScopeMethod scopeMethod = getScopeMethod(proxy.getClass(), method);
+            if (scopeMethod.isSetter)//set
             {
-                map.put(name.substring(3), args[0]);
+                map.put(scopeMethod.name, args[0]);
                 return null;
             }
             else//get
             {
-                name = name.substring(method.getName().startsWith("is") ? 2 : 3);
-                Property<?,?> prop = Property.of(proxy.getClass(), method.getReturnType(), name);
-                if (prop.isReadOnly() && map.get(name) == null)
+                if (scopeMethod.isReadOnly && map.get(scopeMethod.name) == null)
                 {
-                    if (Collection.class.isAssignableFrom(method.getReturnType()) ||
-                    Iterable.class.isAssignableFrom(method.getReturnType()))
-                    {
-                        ObservableList<Object> list = new ObservableList<Object>(new LinkedList<Object>());
-                        map.put(name, list);
-                    }
-                    else if (IObservableCursor.class.isAssignableFrom(method.getReturnType()))
-                    {
-                        map.put(name, new ObservableCursor());
-                    }
-                    else if (IObservableCommand.class.isAssignableFrom(method.getReturnType()))
-                    {
-                        map.put(name, new Command());
-                    }
-                    else if (method.getReturnType().isInterface())
+                    switch (scopeMethod.defaultKind)
                     {
-                        map.put(name, ScopeBuilder.CreateScope(method.getReturnType()));
+                        case ScopeMethod.DEFAULT_LIST:
+                            map.put(scopeMethod.name, new ObservableList<Object>(new LinkedList<Object>()));
+                            break;
+                        case ScopeMethod.DEFAULT_CURSOR:
+                            map.put(scopeMethod.name, new ObservableCursor());
+                            break;
+                        case ScopeMethod.DEFAULT_COMMAND:
+                            map.put(scopeMethod.name, new Command());
+                            break;
+                        case ScopeMethod.DEFAULT_SCOPE:
+                            map.put(scopeMethod.name, ScopeBuilder.CreateScope(scopeMethod.returnType));
+                            break;
                     }
                 }
 
-                Object returnValue = map.get(name);
-                if (method.getReturnType().isPrimitive() && returnValue == null)
-                {
-                    Class<?> rt = method.getReturnType();
-                    if (boolean.class == rt)
-                    {
-                        return false;
-                    }
-                    else
-                    {
-                        return 0;
-                    }
-                }
+                Object returnValue = map.get(scopeMethod.name);
+                if (returnValue == null && scopeMethod.primitiveDefault != null)
+                    return scopeMethod.primitiveDefault;
                 else
-                {
                     return returnValue;
-                }
             }
         }
     }
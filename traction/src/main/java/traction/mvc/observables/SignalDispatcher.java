@@ -0,0 +1,301 @@
+/* Copyright 2013 Tim Stratton
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package traction.mvc.observables;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import traction.mvc.implementations.PropagationId;
+import traction.mvc.util.Log;
+
+/**
+ * Sends the signals of observable objects one at a time, per thread. A signal raised while another one is being sent,
+ * say by a listener setting a property, is queued and sent once the current one is done instead of from deep inside
+ * it. Queued signals of the same object and path are merged. A signal caused, through the chain of signals that led to
+ * it, by the same object and path over and over is taken as a feedback loop: its signals are held back and only the
+ * last one is sent, once everything else is. Signals of the same object and path that don't cause each other, like a
+ * count updated by several other changes, are all sent. A listener throwing does not stop the rest of the cycle; the
+ * first exception is rethrown once all signals are sent.
+ * @author Tim Stratton
+ *
+ */
+final class SignalDispatcher
+{
+    //times an object may signal the same path again along one chain of signals causing each other
+    static final int MAX_REPEATS = 32;
+
+    private static final ThreadLocal<SignalDispatcher> dispatchers = new ThreadLocal<SignalDispatcher>()
+    {
+        @Override
+        protected SignalDispatcher initialValue()
+        {
+            return new SignalDispatcher();
+        }
+    };
+
+    private boolean dispatching;
+    private final ArrayDeque<Signal> queue = new ArrayDeque<Signal>();
+
+    //queued signals, to merge with
+    private final HashMap<Signal, Signal> queued = new HashMap<Signal, Signal>();
+
+    //signal being sent, and what caused it; null for the signal starting the cycle
+    private ObservableObject rootSource;
+    private PropagationId rootPath;
+    private Cause current;
+
+    //last signals of objects and paths over MAX_REPEATS, sent once the queue is empty
+    private final LinkedHashMap<Signal, Signal> held = new LinkedHashMap<Signal, Signal>();
+
+    //used to look signals up without making one
+    private final Signal probe = new Signal();
+    private final ArrayList<Signal> spareSignals = new ArrayList<Signal>();
+
+    private SignalDispatcher()
+    {
+    }
+
+    /**
+     * Sends a signal of an observable object to its listeners now, or once the signal being sent on this thread is done
+     */
+    static void dispatch(ObservableObject source, PropagationId path, Object oldValue, Object newValue, boolean hasValues)
+    {
+        dispatchers.get().send(source, path, oldValue, newValue, hasValues);
+    }
+
+    private void send(ObservableObject source, PropagationId path, Object oldValue, Object newValue, boolean hasValues)
+    {
+        if (dispatching)
+        {
+            enqueue(source, path, oldValue, newValue, hasValues);
+            return;
+        }
+
+        dispatching = true;
+        rootSource = source;
+        rootPath = path;
+        RuntimeException failure = null;
+        try
+        {
+            failure = deliver(source, path, oldValue, newValue, hasValues, null);
+
+            Signal signal;
+            while((signal = next()) != null)
+            {
+                current = signal.cause;
+                ObservableObject signalSource = signal.source;
+                PropagationId signalPath = signal.path;
+                Object signalOldValue = signal.oldValue;
+                Object signalNewValue = signal.newValue;
+                boolean signalHasValues = signal.hasValues;
+                recycle(signal);
+
+                failure = deliver(signalSource, signalPath, signalOldValue, signalNewValue, signalHasValues, failure);
+            }
+        }
+        finally
+        {
+            //only reached with signals left if an error was thrown, those go with it
+            dispatching = false;
+            while(!queue.isEmpty())
+                recycle(queue.poll());
+            queued.clear();
+            held.clear();
+            rootSource = null;
+            rootPath = null;
+            current = null;
+        }
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Next signal to send: the queued ones first, then the held back ones
+     */
+    private Signal next()
+    {
+        if (queue.isEmpty() && !held.isEmpty())
+        {
+            for(Signal signal : held.values())
+            {
+                queue.add(signal);
+                queued.put(signal, signal);
+            }
+            held.clear();
+        }
+
+        Signal signal = queue.poll();
+        if (signal != null)
+            queued.remove(signal);
+        return signal;
+    }
+
+    /**
+     * Sends a signal, keeping the first exception thrown by a listener so the signals after it are still sent
+     */
+    private static RuntimeException deliver(ObservableObject source, PropagationId path, Object oldValue, Object newValue, boolean hasValues, RuntimeException failure)
+    {
+        try
+        {
+            source.deliver(path, oldValue, newValue, hasValues);
+        }
+        catch(RuntimeException ex)
+        {
+            if (failure == null)
+                return ex;
+            Log.e("Listener of " + source.getClass().getName() + " threw while signalled of '" + path + "'", ex);
+        }
+        return failure;
+    }
+
+    private void enqueue(ObservableObject source, PropagationId path, Object oldValue, Object newValue, boolean hasValues)
+    {
+        //times the same object and path show up along the chain of signals that led here, this one included
+        Cause same = current;
+        while(same != null && !same.isOf(source, path))
+            same = same.parent;
+        int count = same != null ? same.count + 1 : rootSource == source && isSamePath(path, rootPath) ? 2 : 1;
+
+        //its last value was already sent, what comes of it is the loop itself
+        if (same != null && same.last)
+            return;
+
+        probe.source = source;
+        probe.path = path;
+        try
+        {
+            //not sent yet, so only its latest value matters
+            Signal pending = queued.get(probe);
+            if (pending == null && count > MAX_REPEATS + 1)
+                pending = held.get(probe);
+            if (pending != null)
+            {
+                pending.newValue = newValue;
+                pending.hasValues &= hasValues;
+                return;
+            }
+        }
+        finally
+        {
+            probe.source = null;
+            probe.path = null;
+        }
+
+        Signal signal = obtain(source, path, oldValue, newValue, hasValues);
+        if (count > MAX_REPEATS + 1)
+        {
+            Log.w("'" + path + "' of " + source.getClass().getName() + " keeps changing because of its own changes; only its last value will be sent to break the loop");
+            signal.cause = new Cause(source, path, current, count, true);
+            held.put(signal, signal);
+            return;
+        }
+
+        signal.cause = new Cause(source, path, current, count, false);
+        queue.add(signal);
+        queued.put(signal, signal);
+    }
+
+    private static boolean isSamePath(PropagationId path, PropagationId other)
+    {
+        return path == null ? other == null : path.equals(other);
+    }
+
+    private Signal obtain(ObservableObject source, PropagationId path, Object oldValue, Object newValue, boolean hasValues)
+    {
+        Signal signal = spareSignals.isEmpty() ? new Signal() : spareSignals.remove(spareSignals.size() - 1);
+        signal.source = source;
+        signal.path = path;
+        signal.oldValue = oldValue;
+        signal.newValue = newValue;
+        signal.hasValues = hasValues;
+        return signal;
+    }
+
+    private void recycle(Signal signal)
+    {
+        signal.source = null;
+        signal.path = null;
+        signal.oldValue = null;
+        signal.newValue = null;
+        signal.cause = null;
+        spareSignals.add(signal);
+    }
+
+    /**
+     * Object and path of a signal sent during a cycle, linked to the signal that caused it
+     */
+    private static class Cause
+    {
+        final ObservableObject source;
+        final PropagationId path;
+        final Cause parent;
+
+        //times the object and path show up along the chain, this one included
+        final int count;
+
+        //true for the last value of a broken loop
+        final boolean last;
+
+        Cause(ObservableObject source, PropagationId path, Cause parent, int count, boolean last)
+        {
+            this.source = source;
+            this.path = path;
+            this.parent = parent;
+            this.count = count;
+            this.last = last;
+        }
+
+        boolean isOf(ObservableObject source, PropagationId path)
+        {
+            return this.source == source && isSamePath(this.path, path);
+        }
+    }
+
+    /**
+     * A signal of an object. Equal to any other signal of the same object and path.
+     */
+    private static class Signal
+    {
+        ObservableObject source;
+        PropagationId path;
+        Object oldValue;
+        Object newValue;
+        boolean hasValues;
+        Cause cause;
+
+        Signal()
+        {
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Signal))
+                return false;
+            Signal other = (Signal)o;
+            return source == other.source && (path == null ? other.path == null : path.equals(other.path));
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return System.identityHashCode(source) * 31 + (path == null ? 0 : path.hashCode());
+        }
+    }
+}